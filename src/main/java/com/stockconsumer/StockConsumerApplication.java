@@ -2,6 +2,8 @@ package com.stockconsumer;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main entry point for the Stock Consumer microservice application.
@@ -16,6 +18,8 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * PostgreSQL as the database for persisting stock information</li>
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@EnableScheduling
 public class StockConsumerApplication {
 
     /**
@@ -0,0 +1,109 @@
+package com.stockconsumer.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.Location;
+import org.flywaydb.core.api.MigrationVersion;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Flyway startup strategy of the fast-start mode.
+ * <p>
+ * A regular Flyway migrate scans, parses and checksums every migration on each start, even when the
+ * schema is up to date. With {@link StartupProperties.FlywayMode#SKIP_IF_CURRENT}, only the names of the
+ * migration scripts are listed and compared with the latest successfully applied version; Flyway runs only
+ * when they differ. Vendor-specific locations ({@code {vendor}}) are listed for all vendors.
+ */
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class FlywayStartupConfig {
+
+    /**
+     * File name pattern of versioned SQL migrations, e.g. {@code V20250215.000000__sequence.sql}.
+     */
+    private static final Pattern VERSIONED_MIGRATION = Pattern.compile("^V([^_]+)__.*\\.sql$");
+
+    /**
+     * Startup settings.
+     */
+    private final StartupProperties properties;
+
+    /**
+     * Provides the Flyway strategy matching the configured {@link StartupProperties.FlywayMode}.
+     *
+     * @return the {@link FlywayMigrationStrategy}.
+     */
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy() {
+        return flyway -> {
+            switch (properties.getFlywayMode()) {
+                case SKIP -> log.info("Flyway skipped");
+                case SKIP_IF_CURRENT -> migrateIfOutdated(flyway);
+                default -> flyway.migrate();
+            }
+        };
+    }
+
+    private void migrateIfOutdated(final Flyway flyway) {
+        MigrationVersion latest = latestClasspathVersion(flyway);
+        MigrationVersion applied = appliedVersion(flyway);
+        if (latest != null && latest.equals(applied)) {
+            log.info("Schema is at the latest version {}, Flyway skipped", applied);
+            return;
+        }
+        log.info("Schema version {} differs from the latest migration {}, running Flyway", applied, latest);
+        flyway.migrate();
+    }
+
+    private static MigrationVersion latestClasspathVersion(final Flyway flyway) {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        MigrationVersion latest = null;
+        for (Location location : flyway.getConfiguration().getLocations()) {
+            if (!location.isClassPath()) {
+                return null;
+            }
+            try {
+                String path = location.getRootPath().replace("{vendor}", "*");
+                for (Resource resource : resolver.getResources("classpath*:" + path + "/*.sql")) {
+                    Matcher matcher = VERSIONED_MIGRATION.matcher(String.valueOf(resource.getFilename()));
+                    if (matcher.matches()) {
+                        MigrationVersion version = MigrationVersion.fromVersion(matcher.group(1));
+                        if (latest == null || version.compareTo(latest) > 0) {
+                            latest = version;
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Cannot list migrations in {}: {}", location, e.getMessage());
+                return null;
+            }
+        }
+        return latest;
+    }
+
+    private static MigrationVersion appliedVersion(final Flyway flyway) {
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(flyway.getConfiguration().getDataSource());
+            List<String> versions = jdbcTemplate.queryForList("SELECT version FROM "
+                    + flyway.getConfiguration().getTable() + " WHERE success AND version IS NOT NULL"
+                    + " ORDER BY installed_rank DESC LIMIT 1", String.class);
+            return versions.isEmpty() ? null : MigrationVersion.fromVersion(versions.get(0));
+        } catch (RuntimeException e) {
+            log.debug("Cannot read the applied schema version: {}", e.getMessage());
+            return null;
+        }
+    }
+
+}
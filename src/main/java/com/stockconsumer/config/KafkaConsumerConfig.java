@@ -1,20 +1,22 @@
 package com.stockconsumer.config;
 
 
-import com.stockconsumer.model.entity.Stock;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.listener.CommonErrorHandler;
 import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.DefaultErrorHandler;
-import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.util.backoff.FixedBackOff;
 
 import java.util.HashMap;
@@ -23,10 +25,12 @@ import java.util.Map;
 /**
  * Configuration class for Kafka consumer.
  * <p>
- * This class sets up the Kafka consumer factory, listener container factory,
+ * This class sets up the Kafka consumer factory, the per-feed listener container factories,
  * and error handling strategies for processing stock price updates.
  */
 @Configuration
+@EnableConfigurationProperties(StockConsumerProperties.class)
+@RequiredArgsConstructor
 @Slf4j
 public class KafkaConsumerConfig {
 
@@ -35,10 +39,17 @@ public class KafkaConsumerConfig {
      */
     private static final String KAFKA_BOOTSTRAP_SERVERS = "localhost:9092";
 
+    /**
+     * Address of the Kafka broker, taken from {@code spring.kafka.bootstrap-servers}
+     * and falling back to {@link #KAFKA_BOOTSTRAP_SERVERS}.
+     */
+    @Value("${spring.kafka.bootstrap-servers:" + KAFKA_BOOTSTRAP_SERVERS + "}")
+    private String bootstrapServers;
+
     /**
      * Group ID for stock price consumers.
      */
-    private static final String KAFKA_GROUP_ID = "stock-consumer-group";
+    public static final String KAFKA_GROUP_ID = "stock-consumer-group";
 
     /**
      * Kafka auto offset reset policy: "earliest" means the consumer will start reading from the earliest available message.
@@ -56,69 +67,95 @@ public class KafkaConsumerConfig {
     private static final Long RETRY_DELAY_MILLISECONDS = 1000L;
 
     /**
-     * Trusted package pattern for JSON deserialization.
-     * Accepts all packages to allow Kafka to deserialize messages into Stock objects.
+     * Externalized consumer settings (timeouts and adaptive batch sizing).
      */
-    private static final String JSON_TRUSTED_PACKAGES = "*";
+    private final StockConsumerProperties properties;
 
     /**
-     * Configures the Kafka {@link ConsumerFactory} for deserializing Stock messages.
+     * Configures the Kafka {@link ConsumerFactory} for Stock messages.
+     * <p>
+     * Record values are consumed as raw bytes and decoded by the feed listeners straight into the compact
+     * tick representation (see {@link com.stockconsumer.service.tick.TickDecoder}), so that no intermediate
+     * {@code Stock} object is created per record.
      * <p>
      * It defines the Kafka consumer properties such as group ID, deserialization settings,
-     * and auto offset reset behavior.
+     * and auto offset reset behavior. Session, heartbeat and poll-interval timeouts are taken from
+     * {@link StockConsumerProperties}, and {@code max.poll.records} starts at the initial adaptive batch size.
      * Configuring the Kafka Consumer with connection and serialization settings.
      * Creating Consumer instances that Spring Kafka uses for consuming messages.
      *
      * @return a factory that produces Kafka consumers, a configured {@link ConsumerFactory} instance.
      */
     @Bean
-    public ConsumerFactory<String, Stock> consumerFactory() {
-        JsonDeserializer<Stock> deserializer = new JsonDeserializer<>(Stock.class);
+    public ConsumerFactory<String, byte[]> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
 
 
-        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, KAFKA_BOOTSTRAP_SERVERS);
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, KAFKA_GROUP_ID);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, deserializer.getClass());
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, KAFKA_AUTO_OFFSET_RESET);
 
-        props.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, 30000);
-        props.put(ConsumerConfig.HEARTBEAT_INTERVAL_MS_CONFIG, 10000);
-        props.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, 300000);
-        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 10);
-
-        props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class);
-        props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
-
+        props.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, properties.getSessionTimeoutMs());
+        props.put(ConsumerConfig.HEARTBEAT_INTERVAL_MS_CONFIG, properties.getHeartbeatIntervalMs());
+        props.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, properties.getMaxPollIntervalMs());
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, properties.getAdaptive().getInitialBatchSize());
 
         return new DefaultKafkaConsumerFactory<>(props,
                 new StringDeserializer(),
-                deserializer
+                new ByteArrayDeserializer()
         );
     }
 
     /**
-     * Configures a {@link ConcurrentKafkaListenerContainerFactory} for handling Kafka messages.
+     * Creates a dedicated {@link ConcurrentKafkaListenerContainerFactory} for a single feed.
      * <p>
-     * Sets the consumer factory and assigns a common error handler to handle exceptions during processing.
+     * Every feed gets its own factory, so that its container runs with its own concurrency,
+     * delivery mode, batch size ({@code max.poll.records}) and consumer threads. A slow or bursty
+     * feed therefore cannot delay the others. Consumer threads are named after the listener id.
+     * The factory shares the consumer factory and the common error handler.
      *
+     * @param feed the feed settings.
      * @return a configured {@link ConcurrentKafkaListenerContainerFactory} instance.
      */
-    @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, Stock> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, Stock> factory =
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> feedContainerFactory(
+            final StockConsumerProperties.Feed feed) {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
-        factory.setConcurrency(RETRY_MAX_ATTEMPTS);
+        factory.setConcurrency(feed.getConcurrency());
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        factory.getContainerProperties().setListenerTaskExecutor(
+                new SimpleAsyncTaskExecutor(feed.getListenerId() + "-"));
+        factory.getContainerProperties().getKafkaConsumerProperties().setProperty(
+                ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(batchSize(feed)));
         factory.setCommonErrorHandler(commonErrorHandler());
-        factory.setBatchListener(false);
-        factory.setConcurrency(1);
+        factory.setBatchListener(feed.getProcessingMode() == StockConsumerProperties.ProcessingMode.BATCH);
 
         return factory;
     }
 
+    /**
+     * Resolves the initial batch size of a feed, falling back to the initial adaptive batch size.
+     *
+     * @param feed the feed settings.
+     * @return the initial {@code max.poll.records} of the feed.
+     */
+    public int batchSize(final StockConsumerProperties.Feed feed) {
+        return feed.getBatchSize() != null ? feed.getBatchSize() : properties.getAdaptive().getInitialBatchSize();
+    }
+
+    /**
+     * Resolves the consumer group of a feed. Feeds use separate groups by default,
+     * so that a rebalance in one feed does not pause the others.
+     *
+     * @param feed the feed settings.
+     * @return the consumer group id.
+     */
+    public String groupId(final StockConsumerProperties.Feed feed) {
+        return feed.getGroupId() != null ? feed.getGroupId() : KAFKA_GROUP_ID + "-" + feed.getName();
+    }
 
     /**
      * Provides a common error handler with a fixed backoff retry strategy.
@@ -131,8 +168,8 @@ public class KafkaConsumerConfig {
     @Bean
     public CommonErrorHandler commonErrorHandler() {
         return new DefaultErrorHandler(
-                (consumerRecord, exception) -> log.error("Error processing record with key {}: {}, due to: {}",
-                        consumerRecord.key(), consumerRecord.value(), exception.getMessage()),
+                (consumerRecord, exception) -> log.error("Error processing record with key {} at offset {}, due to: {}",
+                        consumerRecord.key(), consumerRecord.offset(), exception.getMessage()),
                 new FixedBackOff(RETRY_DELAY_MILLISECONDS, RETRY_MAX_ATTEMPTS)
         );
     }
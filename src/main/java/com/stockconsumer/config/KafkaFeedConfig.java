@@ -0,0 +1,116 @@
+package com.stockconsumer.config;
+
+import com.stockconsumer.service.StockConsumer;
+import com.stockconsumer.service.StockFeedListener;
+import com.stockconsumer.service.adaptive.AdaptiveBatchController;
+import com.stockconsumer.service.tick.SymbolDictionary;
+import com.stockconsumer.service.tick.TickDecoder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.KafkaListenerConfigurer;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistrar;
+import org.springframework.kafka.config.MethodKafkaListenerEndpoint;
+import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
+
+import java.util.List;
+
+/**
+ * Registers one Kafka listener container per configured feed.
+ * <p>
+ * Feeds are declared under {@code stock.consumer.feeds}. Each one is consumed by its own container,
+ * created from its own container factory (see {@link KafkaConsumerConfig#feedContainerFactory}),
+ * so that topics, concurrency, batch size and processing mode can be tuned per venue without code changes.
+ * Metrics are reported per listener id ("{feed name}-listener").
+ */
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class KafkaFeedConfig implements KafkaListenerConfigurer {
+
+    /**
+     * Name of the feed consumed when no feeds are configured.
+     */
+    public static final String DEFAULT_FEED = "stock-prices";
+
+    /**
+     * Listener container id of the default feed.
+     */
+    public static final String DEFAULT_LISTENER_ID = DEFAULT_FEED + "-listener";
+
+    /**
+     * Consumer properties holding the feed list.
+     */
+    private final StockConsumerProperties properties;
+
+    /**
+     * Kafka consumer configuration providing the per-feed container factories.
+     */
+    private final KafkaConsumerConfig kafkaConsumerConfig;
+
+    /**
+     * Processing pipeline shared by all feeds.
+     */
+    private final StockConsumer stockConsumer;
+
+    /**
+     * Adaptive batch controller, seeded with the initial batch size of every batch mode feed.
+     */
+    private final AdaptiveBatchController batchController;
+
+    /**
+     * Decoder of the consumed messages into compact ticks.
+     */
+    private final TickDecoder tickDecoder;
+
+    /**
+     * Dictionary encoding the symbols of the decoded ticks.
+     */
+    private final SymbolDictionary symbolDictionary;
+
+    /**
+     * Registers a listener endpoint and its dedicated container factory for every feed.
+     *
+     * @param registrar the endpoint registrar.
+     */
+    @Override
+    public void configureKafkaListeners(final KafkaListenerEndpointRegistrar registrar) {
+        DefaultMessageHandlerMethodFactory handlerMethodFactory = new DefaultMessageHandlerMethodFactory();
+        handlerMethodFactory.afterPropertiesSet();
+
+        for (StockConsumerProperties.Feed feed : feeds()) {
+            boolean batch = feed.getProcessingMode() == StockConsumerProperties.ProcessingMode.BATCH;
+            MethodKafkaListenerEndpoint<String, byte[]> endpoint = new MethodKafkaListenerEndpoint<>();
+            endpoint.setId(feed.getListenerId());
+            endpoint.setGroupId(kafkaConsumerConfig.groupId(feed));
+            endpoint.setTopics(feed.getTopic());
+            endpoint.setBean(new StockFeedListener(feed.getListenerId(), stockConsumer, tickDecoder,
+                    symbolDictionary));
+            endpoint.setMethod(StockFeedListener.listenerMethod(batch));
+            endpoint.setMessageHandlerMethodFactory(handlerMethodFactory);
+
+            if (batch) {
+                batchController.register(feed.getListenerId(), kafkaConsumerConfig.batchSize(feed));
+            }
+            registrar.registerEndpoint(endpoint, kafkaConsumerConfig.feedContainerFactory(feed));
+            log.info("Registered feed {} (topic {}, group {}, concurrency {}, mode {})", feed.getName(),
+                    feed.getTopic(), kafkaConsumerConfig.groupId(feed), feed.getConcurrency(),
+                    feed.getProcessingMode());
+        }
+    }
+
+    /**
+     * Returns the configured feeds, or the single default feed when none are configured.
+     *
+     * @return the feeds to consume.
+     */
+    public List<StockConsumerProperties.Feed> feeds() {
+        if (properties.getFeeds().isEmpty()) {
+            StockConsumerProperties.Feed feed = new StockConsumerProperties.Feed(DEFAULT_FEED);
+            feed.setGroupId(KafkaConsumerConfig.KAFKA_GROUP_ID);
+            return List.of(feed);
+        }
+        return properties.getFeeds();
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.stockconsumer.config;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration class for the Kafka producer publishing the latest price snapshots.
+ * <p>
+ * Snapshots are small and frequent, so the producer is tuned for throughput: records are batched
+ * for up to {@link SnapshotProperties#getLingerMs()} and batches are compressed.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class KafkaProducerConfig {
+
+    /**
+     * Address of the Kafka broker, taken from {@code spring.kafka.bootstrap-servers}.
+     */
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    /**
+     * Snapshot publication settings.
+     */
+    private final SnapshotProperties properties;
+
+    /**
+     * Configures the {@link ProducerFactory} of the snapshot producer.
+     * Keys are symbols, values are JSON stock updates serialized by the publisher.
+     *
+     * @return a configured {@link ProducerFactory} instance.
+     */
+    @Bean
+    public ProducerFactory<String, byte[]> snapshotProducerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        props.put(ProducerConfig.ACKS_CONFIG, properties.getAcks());
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, properties.getCompressionType());
+        props.put(ProducerConfig.LINGER_MS_CONFIG, properties.getLingerMs());
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, properties.getBatchSize());
+        return new DefaultKafkaProducerFactory<>(props);
+    }
+
+    /**
+     * Provides the {@link KafkaTemplate} used by the snapshot publisher.
+     *
+     * @return a configured {@link KafkaTemplate} instance.
+     */
+    @Bean
+    public KafkaTemplate<String, byte[]> snapshotKafkaTemplate() {
+        return new KafkaTemplate<>(snapshotProducerFactory());
+    }
+
+}
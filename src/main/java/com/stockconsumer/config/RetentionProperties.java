@@ -0,0 +1,88 @@
+package com.stockconsumer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of the background retention and downsampling job.
+ * <p>
+ * Bound from the {@code stock.retention} prefix of the application configuration.
+ */
+@Data
+@ConfigurationProperties(prefix = "stock.retention")
+public class RetentionProperties {
+
+    /**
+     * Whether the retention job runs.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Delay between the end of a run and the start of the next one.
+     */
+    private Duration interval = Duration.ofHours(1);
+
+    /**
+     * Delay before the first run after startup.
+     */
+    private Duration initialDelay = Duration.ofMinutes(5);
+
+    /**
+     * Maximum number of rows rolled up or deleted in a single transaction.
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Pause between two batches, leaving the database to the ingest path.
+     */
+    private Duration pauseBetweenBatches = Duration.ofMillis(50);
+
+    /**
+     * Maximum number of batches per table and run; the remainder is handled by the next run.
+     */
+    private int maxBatchesPerRun = 10000;
+
+    /**
+     * Retention policies, one per table.
+     */
+    private List<Policy> policies = new ArrayList<>();
+
+    /**
+     * Retention policy of a single table.
+     */
+    @Data
+    public static class Policy {
+
+        /**
+         * Name of the table.
+         */
+        private String table;
+
+        /**
+         * Timestamp column the age of a row is determined from.
+         */
+        private String timestampColumn = "timestamp";
+
+        /**
+         * Rows older than this are removed from the table.
+         */
+        private Duration retain;
+
+        /**
+         * Bucket size of the aggregates the removed rows are rolled up into (stock ticks only).
+         * When not set, expired rows are deleted without rollup.
+         */
+        private Duration rollup;
+
+        /**
+         * Whether the latest row of every symbol is kept regardless of its age, so that a symbol that has
+         * been quiet for longer than the retention period keeps its last price. Requires a {@code symbol} column.
+         */
+        private boolean keepLatestPerSymbol = true;
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.stockconsumer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the publication of conflated latest prices to a log-compacted Kafka topic.
+ * <p>
+ * Bound from the {@code stock.snapshot} prefix of the application configuration.
+ */
+@Data
+@ConfigurationProperties(prefix = "stock.snapshot")
+public class SnapshotProperties {
+
+    /**
+     * Whether latest prices are published.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Log-compacted topic receiving the latest price of every symbol, keyed by symbol.
+     */
+    private String topic = "stock-prices-latest";
+
+    /**
+     * Publication interval; a symbol is published at most once per interval, with its latest price.
+     */
+    private Duration interval = Duration.ofSeconds(1);
+
+    /**
+     * Whether the topic is created (with {@code cleanup.policy=compact}) when it does not exist.
+     */
+    private boolean createTopic = true;
+
+    /**
+     * Number of partitions of the created topic; the partitions of an existing topic are never changed.
+     */
+    private int partitions = 3;
+
+    /**
+     * Replication factor of the created topic.
+     */
+    private short replicationFactor = 1;
+
+    /**
+     * Compression codec of the produced batches.
+     */
+    private String compressionType = "lz4";
+
+    /**
+     * Time the producer waits for more records before sending a batch.
+     */
+    private int lingerMs = 20;
+
+    /**
+     * Maximum size in bytes of a produced batch per partition.
+     */
+    private int batchSize = 65536;
+
+    /**
+     * Acknowledgements required from the broker.
+     */
+    private String acks = "all";
+}
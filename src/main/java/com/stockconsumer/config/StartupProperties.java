@@ -0,0 +1,42 @@
+package com.stockconsumer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the application startup.
+ * <p>
+ * Bound from the {@code stock.startup} prefix of the application configuration.
+ */
+@Data
+@ConfigurationProperties(prefix = "stock.startup")
+public class StartupProperties {
+
+    /**
+     * How Flyway is run on startup.
+     */
+    private FlywayMode flywayMode = FlywayMode.MIGRATE;
+
+    /**
+     * How Flyway is run on startup.
+     */
+    public enum FlywayMode {
+
+        /**
+         * Regular Flyway migrate, including validation of all applied migrations.
+         */
+        MIGRATE,
+
+        /**
+         * Skips Flyway (scan, validation and migrate) when the latest applied schema version
+         * equals the latest migration on the classpath; migrates otherwise.
+         */
+        SKIP_IF_CURRENT,
+
+        /**
+         * Never touches the database; used for the CDS training run.
+         */
+        SKIP
+    }
+
+}
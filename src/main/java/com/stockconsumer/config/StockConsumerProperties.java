@@ -0,0 +1,357 @@
+package com.stockconsumer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Externalized settings of the stock price consumer.
+ * <p>
+ * Bound from the {@code stock.consumer} prefix of the application configuration.
+ * Values not present in the configuration fall back to the defaults declared here.
+ */
+@Data
+@ConfigurationProperties(prefix = "stock.consumer")
+public class StockConsumerProperties {
+
+    /**
+     * Kafka consumer session timeout in milliseconds.
+     */
+    private int sessionTimeoutMs = 30000;
+
+    /**
+     * Kafka consumer heartbeat interval in milliseconds.
+     */
+    private int heartbeatIntervalMs = 10000;
+
+    /**
+     * Maximum delay in milliseconds between two polls before the consumer is considered failed.
+     */
+    private int maxPollIntervalMs = 300000;
+
+    /**
+     * Maximum number of distinct symbols; ticks of further symbols are skipped.
+     */
+    private int maxSymbols = 100000;
+
+    /**
+     * Ingested feeds, each consumed by its own listener container.
+     * When empty, the single default "stock-prices" feed is consumed.
+     */
+    private List<Feed> feeds = new ArrayList<>();
+
+    /**
+     * Settings of the adaptive batch size controller.
+     */
+    private Adaptive adaptive = new Adaptive();
+
+    /**
+     * Settings of the price alert dispatch.
+     */
+    private Alerts alerts = new Alerts();
+
+    /**
+     * Settings of the in-memory buffers of recent ticks answering as-of price lookups.
+     */
+    private RecentTicks recentTicks = new RecentTicks();
+
+    /**
+     * Settings of the lag-driven consumer concurrency scaling.
+     */
+    private Scaling scaling = new Scaling();
+
+    /**
+     * Settings of the in-memory price change log serving delta synchronization.
+     */
+    private Changes changes = new Changes();
+
+    /**
+     * How the records of a feed are delivered to the consumer.
+     */
+    public enum ProcessingMode {
+
+        /**
+         * All records of a poll are processed and flushed together.
+         */
+        BATCH,
+
+        /**
+         * Every record is processed and flushed on its own; lowest latency for low-volume feeds.
+         * The batch size of these feeds is not adapted.
+         */
+        RECORD
+    }
+
+    /**
+     * Settings of a single ingested feed (e.g. one exchange).
+     */
+    @Data
+    public static class Feed {
+
+        /**
+         * Unique name of the feed, also used to derive the listener container id.
+         */
+        private String name;
+
+        /**
+         * Topic of the feed; defaults to the feed name.
+         */
+        private String topic;
+
+        /**
+         * Consumer group of the feed; defaults to "stock-consumer-group-{name}".
+         */
+        private String groupId;
+
+        /**
+         * Number of consumer threads the feed container starts with; adjusted at runtime by the
+         * concurrency scaler when scaling is enabled.
+         */
+        private int concurrency = 1;
+
+        /**
+         * Initial batch size ({@code max.poll.records}); defaults to the initial adaptive batch size.
+         * Adapted at runtime for {@link ProcessingMode#BATCH} feeds only.
+         */
+        private Integer batchSize;
+
+        /**
+         * Delivery mode of the feed records.
+         */
+        private ProcessingMode processingMode = ProcessingMode.BATCH;
+
+        /**
+         * Creates an empty feed, to be populated by property binding.
+         */
+        public Feed() {
+        }
+
+        /**
+         * Creates a feed with the given name consuming the topic of the same name.
+         *
+         * @param name feed name and topic.
+         */
+        public Feed(final String name) {
+            this.name = name;
+        }
+
+        /**
+         * Returns the topic of the feed.
+         *
+         * @return the configured topic, or the feed name when not configured.
+         */
+        public String getTopic() {
+            return topic != null ? topic : name;
+        }
+
+        /**
+         * Returns the id of the listener container consuming the feed.
+         *
+         * @return the listener container id.
+         */
+        public String getListenerId() {
+            return name + "-listener";
+        }
+    }
+
+    /**
+     * Settings of the adaptive batch size controller.
+     * <p>
+     * The controller observes the processing and flush time of every consumed batch
+     * and moves the effective batch size between {@link #minBatchSize} and {@link #maxBatchSize}
+     * so that a batch completes within {@link #targetLatency}.
+     */
+    @Data
+    public static class Adaptive {
+
+        /**
+         * Whether measured latencies are applied to the listener containers.
+         * When disabled, the batch size stays at {@link #initialBatchSize}, but metrics are still recorded.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Batch size ({@code max.poll.records}) used when the consumer starts.
+         */
+        private int initialBatchSize = 10;
+
+        /**
+         * Lower bound of the effective batch size.
+         */
+        private int minBatchSize = 1;
+
+        /**
+         * Upper bound of the effective batch size.
+         */
+        private int maxBatchSize = 500;
+
+        /**
+         * Latency SLO of a single batch, processing and flush included.
+         */
+        private Duration targetLatency = Duration.ofMillis(250);
+
+        /**
+         * Factor applied to the batch size when the measured latency exceeds the target.
+         */
+        private double decreaseFactor = 0.5;
+
+        /**
+         * Smoothing factor of the exponentially weighted latency averages (0..1].
+         */
+        private double smoothing = 0.3;
+
+        /**
+         * Minimum relative difference between the recommended and the applied batch size
+         * that triggers re-configuration of the consumer.
+         */
+        private double minChangeRatio = 0.25;
+
+        /**
+         * Interval at which the controller re-evaluates the batch size.
+         */
+        private Duration adjustInterval = Duration.ofSeconds(10);
+
+        /**
+         * Minimum time between two re-configurations of the same listener container.
+         */
+        private Duration cooldown = Duration.ofSeconds(30);
+
+        /**
+         * Estimated serialized size of a single record, used to derive {@code fetch.min.bytes}.
+         */
+        private int estimatedRecordBytes = 128;
+
+        /**
+         * Upper bound of {@code fetch.max.wait.ms}, i.e. how long the broker may hold a fetch
+         * while waiting for {@code fetch.min.bytes} to accumulate.
+         */
+        private int maxFetchWaitMs = 100;
+    }
+
+    /**
+     * Settings of the asynchronous price alert dispatch.
+     */
+    @Data
+    public static class Alerts {
+
+        /**
+         * Capacity of the queue between the consumer and the dispatcher thread.
+         * Triggers are dropped (and counted) when the queue is full.
+         */
+        private int queueCapacity = 10000;
+
+        /**
+         * Maximum number of triggers delivered to the notifier at once.
+         */
+        private int dispatchBatchSize = 100;
+    }
+
+    /**
+     * Settings of the per-symbol buffers of recent ticks.
+     * <p>
+     * As-of lookups within the horizon are answered from memory; older lookups fall back to the
+     * persisted price history.
+     */
+    @Data
+    public static class RecentTicks {
+
+        /**
+         * Whether consumed ticks are buffered; when disabled, every lookup goes to the database.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Time span, measured back from the newest tick of a symbol, that is kept in memory.
+         */
+        private Duration horizon = Duration.ofMinutes(15);
+
+        /**
+         * Maximum number of ticks buffered per symbol; the oldest ticks are overwritten first,
+         * which shortens the effective horizon of very active symbols.
+         */
+        private int maxTicksPerSymbol = 4096;
+    }
+
+    /**
+     * Settings of the lag-driven consumer concurrency scaling.
+     * <p>
+     * The scaler periodically measures the lag of every feed consumer group and its processing rate.
+     * A feed is scaled up when its lag exceeds {@link #scaleUpLag} and would take longer than
+     * {@link #targetDrainTime} to drain, and scaled down when its lag stays below {@link #scaleDownLag}.
+     * Each decision must hold for several consecutive checks and is followed by a cooldown, so that a
+     * short spike does not restart the consumers back and forth.
+     */
+    @Data
+    public static class Scaling {
+
+        /**
+         * Whether the concurrency of the feed containers is adjusted at runtime.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Lower bound of the number of consumer threads per feed.
+         */
+        private int minConcurrency = 1;
+
+        /**
+         * Upper bound of the number of consumer threads per feed; also capped by the topic partition count.
+         */
+        private int maxConcurrency = 8;
+
+        /**
+         * Interval at which the lag of the feeds is measured.
+         */
+        private Duration checkInterval = Duration.ofSeconds(15);
+
+        /**
+         * Total lag (records) of a feed above which it is considered for scaling up.
+         */
+        private long scaleUpLag = 1000;
+
+        /**
+         * Total lag (records) of a feed below which it is considered for scaling down.
+         */
+        private long scaleDownLag = 100;
+
+        /**
+         * Time in which the lag should be drained at the measured processing rate; a feed whose lag takes
+         * longer is scaled up.
+         */
+        private Duration targetDrainTime = Duration.ofSeconds(30);
+
+        /**
+         * Number of consecutive checks that must call for a scale up before it is applied.
+         */
+        private int scaleUpChecks = 2;
+
+        /**
+         * Number of consecutive checks that must call for a scale down before it is applied.
+         */
+        private int scaleDownChecks = 8;
+
+        /**
+         * Minimum time between two concurrency changes of the same feed.
+         */
+        private Duration cooldown = Duration.ofMinutes(1);
+    }
+
+    /**
+     * Settings of the in-memory price change log.
+     * <p>
+     * Every ingested tick gets the next version; the log remembers the symbol of the last
+     * {@link #capacity} versions. Clients syncing from an older version get a full snapshot instead.
+     */
+    @Data
+    public static class Changes {
+
+        /**
+         * Number of versions retained by the change log.
+         */
+        private int capacity = 100000;
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.stockconsumer.controllers;
+
+import com.stockconsumer.model.entity.AlertRule;
+import com.stockconsumer.service.AlertRuleService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller for managing price alert rules.
+ * Provides endpoints to retrieve, create, update, and delete rules such as "AAPL crosses above 180".
+ */
+@RestController
+@RequestMapping("/alerts/rules")
+@RequiredArgsConstructor
+public class AlertRuleController {
+
+    /**
+     * The service responsible for persisting the rules and keeping the ingest index in sync.
+     */
+    private final AlertRuleService alertRuleService;
+
+    /**
+     * Retrieves all alert rules.
+     *
+     * @return a list of all {@link AlertRule} objects.
+     */
+    @GetMapping
+    public ResponseEntity<List<AlertRule>> getAllRules() {
+        return ResponseEntity.ok(alertRuleService.getAllRules());
+    }
+
+    /**
+     * Retrieves an alert rule by its ID.
+     *
+     * @param id the unique identifier of the rule.
+     * @return the {@link AlertRule} object if found, or 404 Not Found if not.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<AlertRule> getRuleById(@PathVariable final Long id) {
+        return alertRuleService.getRuleById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Retrieves the alert rules registered for a stock symbol.
+     *
+     * @param symbol the symbol of the stock.
+     * @return a list of {@link AlertRule} objects.
+     */
+    @GetMapping("/symbol/{symbol}")
+    public ResponseEntity<List<AlertRule>> getRulesBySymbol(@PathVariable final String symbol) {
+        return ResponseEntity.ok(alertRuleService.getRulesBySymbol(symbol));
+    }
+
+    /**
+     * Creates a new alert rule.
+     *
+     * @param rule the {@link AlertRule} object to be created.
+     * @return the created {@link AlertRule} object with status 201 Created.
+     */
+    @PostMapping
+    public ResponseEntity<AlertRule> createRule(@Valid @RequestBody final AlertRule rule) {
+        AlertRule createdRule = alertRuleService.createRule(rule);
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdRule);
+    }
+
+    /**
+     * Updates an existing alert rule by its ID.
+     *
+     * @param id the unique identifier of the rule to be updated.
+     * @param rule the updated {@link AlertRule} object.
+     * @return the updated {@link AlertRule} object, or 404 Not Found if the rule does not exist.
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<AlertRule> updateRule(@PathVariable final Long id,
+                                                @Valid @RequestBody final AlertRule rule) {
+        return alertRuleService.updateRule(id, rule)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Deletes an alert rule by its ID.
+     *
+     * @param id the unique identifier of the rule to be deleted.
+     * @return a 204 No Content response if successful, or 404 Not Found if the rule does not exist.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteRule(@PathVariable final Long id) {
+        if (alertRuleService.deleteRule(id)) {
+            return ResponseEntity.noContent().build();
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
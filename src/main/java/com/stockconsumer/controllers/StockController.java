@@ -2,7 +2,9 @@ package com.stockconsumer.controllers;
 
 import com.stockconsumer.model.entity.Stock;
 import com.stockconsumer.service.StockService;
+import com.stockconsumer.service.changes.PriceChanges;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -12,8 +14,10 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -62,6 +66,37 @@ public class StockController {
         return ResponseEntity.ok(stocks);
     }
 
+    /**
+     * Retrieves the latest price of the stocks changed since the given version.
+     * <p>
+     * Clients keeping a local copy of all prices pass the version of their copy and apply the returned
+     * stocks; when the answer is a snapshot, it replaces the copy.
+     *
+     * @param since the version token returned by the previous call, absent for a full snapshot.
+     * @return the {@link PriceChanges} with the current version token.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<PriceChanges> getChanges(@RequestParam(value = "since", required = false)
+                                                   final String since) {
+        return ResponseEntity.ok(stockService.getChangesSince(since));
+    }
+
+    /**
+     * Retrieves the price of a stock as of the given time, i.e. its last tick at or before that time.
+     *
+     * @param symbol the symbol of the stock.
+     * @param ts     the requested time, in ISO-8601 format (e.g. {@code 2026-10-19T10:15:30}).
+     * @return the {@link Stock} tick if found, or 404 Not Found if no tick is known at or before the time.
+     */
+    @GetMapping("/symbol/{symbol}/asof")
+    public ResponseEntity<Stock> getStockAsOf(@PathVariable final String symbol,
+                                              @RequestParam("ts") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                              final LocalDateTime ts) {
+        return stockService.getStockAsOf(symbol, ts)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     /**
      * Creates a new stock.
      *
@@ -0,0 +1,18 @@
+package com.stockconsumer.model.entity;
+
+/**
+ * Direction in which the price has to cross the threshold of an {@link AlertRule}.
+ */
+public enum AlertDirection {
+
+    /**
+     * Triggers when the price moves from below the threshold to the threshold or above it.
+     */
+    ABOVE,
+
+    /**
+     * Triggers when the price moves from above the threshold to the threshold or below it.
+     */
+    BELOW
+
+}
@@ -0,0 +1,76 @@
+package com.stockconsumer.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a price alert rule registered by a user.
+ * <p>
+ * A rule such as "AAPL crosses above 180" is described by the stock symbol,
+ * the price threshold and the crossing direction. This class is mapped to the "alert_rule" table.
+ */
+@Entity
+@Table(name = "alert_rule")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AlertRule {
+
+    /**
+     * Unique identifier for the rule.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ALERT_RULE_UNIQUE_ID")
+    @SequenceGenerator(name = "ALERT_RULE_UNIQUE_ID", sequenceName = "ALERT_RULE_UNIQUE_ID", allocationSize = 1)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    /**
+     * Symbol of the watched stock (e.g., "AAPL" for Apple Inc.).
+     */
+    @NotBlank
+    @Size(max = 10)
+    @Column(name = "symbol", nullable = false, length = 10)
+    private String symbol;
+
+    /**
+     * Price level that has to be crossed for the rule to trigger.
+     */
+    @NotNull
+    @Positive
+    @Column(name = "threshold", nullable = false)
+    private Double threshold;
+
+    /**
+     * Direction in which the price has to cross the threshold.
+     */
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "direction", nullable = false, length = 10)
+    private AlertDirection direction;
+
+    /**
+     * Timestamp indicating when the rule was registered.
+     */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+}
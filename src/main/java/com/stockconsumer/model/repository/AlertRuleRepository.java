@@ -0,0 +1,25 @@
+package com.stockconsumer.model.repository;
+
+import com.stockconsumer.model.entity.AlertRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for managing {@link AlertRule} entities.
+ * <p>
+ * This interface provides methods for performing CRUD operations on the "alert_rule" table.
+ */
+@Repository
+public interface AlertRuleRepository extends JpaRepository<AlertRule, Long> {
+
+    /**
+     * Finds the rules registered for the given stock symbol.
+     *
+     * @param symbol the symbol of the stock (e.g., "AAPL" for Apple Inc.)
+     * @return a list of rules
+     */
+    List<AlertRule> findBySymbol(String symbol);
+
+}
@@ -3,8 +3,10 @@ package com.stockconsumer.model.repository;
 
 import com.stockconsumer.model.entity.Stock;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -50,4 +52,28 @@ public interface StockRepository extends JpaRepository<Stock, Long> {
      */
     List<Stock> findAllByOrderByPriceDesc();
 
+    /**
+     * Finds the last persisted price of the symbol at or before the given time.
+     * <p>
+     * Backed by the index on symbol and timestamp; used for as-of lookups beyond the in-memory horizon.
+     *
+     * @param symbol    the symbol of the stock
+     * @param timestamp the requested time
+     * @return an {@link Optional} containing the latest stock row not newer than the given time
+     */
+    Optional<Stock> findFirstBySymbolAndTimestampLessThanEqualOrderByTimestampDesc(String symbol,
+                                                                                  LocalDateTime timestamp);
+
+    /**
+     * Finds the latest persisted row of every symbol.
+     * <p>
+     * A single pass over the index on symbol and timestamp; of rows sharing the latest timestamp
+     * of a symbol, the one with the highest id is returned.
+     *
+     * @return a {@link List} of the latest {@link Stock} row per symbol
+     */
+    @Query(value = "SELECT DISTINCT ON (symbol) * FROM stock ORDER BY symbol, timestamp DESC, id DESC",
+            nativeQuery = true)
+    List<Stock> findLatestPerSymbol();
+
 }
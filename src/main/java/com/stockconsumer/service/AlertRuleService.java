@@ -0,0 +1,62 @@
+package com.stockconsumer.service;
+
+import com.stockconsumer.model.entity.AlertRule;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service interface for managing price alert rules.
+ * Defines methods for retrieving, creating, updating, and deleting rules.
+ * Every change is reflected in the in-memory index evaluated on the ingest path.
+ */
+public interface AlertRuleService {
+
+    /**
+     * Retrieves all alert rules.
+     *
+     * @return a list of all {@link AlertRule} objects.
+     */
+    List<AlertRule> getAllRules();
+
+    /**
+     * Retrieves an alert rule by its unique identifier.
+     *
+     * @param id the unique identifier of the rule.
+     * @return an {@link Optional} containing the {@link AlertRule} if found, or an empty {@link Optional} if not.
+     */
+    Optional<AlertRule> getRuleById(Long id);
+
+    /**
+     * Fetch list of alert rules by stock symbol.
+     *
+     * @param symbol of the stock.
+     * @return a list of rules.
+     */
+    List<AlertRule> getRulesBySymbol(String symbol);
+
+    /**
+     * Creates a new alert rule.
+     *
+     * @param rule the {@link AlertRule} object to create.
+     * @return the created {@link AlertRule} object.
+     */
+    AlertRule createRule(AlertRule rule);
+
+    /**
+     * Updates an existing alert rule identified by its ID.
+     *
+     * @param id the unique identifier of the rule to update.
+     * @param rule the updated {@link AlertRule} object.
+     * @return an {@link Optional} containing the updated {@link AlertRule}, or empty if the rule is not found.
+     */
+    Optional<AlertRule> updateRule(Long id, AlertRule rule);
+
+    /**
+     * Deletes an alert rule identified by its unique identifier.
+     *
+     * @param id the unique identifier of the rule to delete.
+     * @return {@code true} if the rule was deleted successfully, {@code false} otherwise.
+     */
+    boolean deleteRule(Long id);
+}
@@ -0,0 +1,99 @@
+package com.stockconsumer.service;
+
+import com.stockconsumer.model.entity.AlertRule;
+import com.stockconsumer.model.repository.AlertRuleRepository;
+import com.stockconsumer.service.alert.AlertRuleIndex;
+import com.stockconsumer.service.tick.Ticks;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implementation of {@link AlertRuleService} for managing price alert rules.
+ * Persists the rules via {@link AlertRuleRepository} and keeps the {@link AlertRuleIndex} in sync.
+ */
+@Service
+@RequiredArgsConstructor
+public class AlertRuleServiceImpl implements AlertRuleService {
+
+    /**
+     * Repository for performing CRUD operations on alert rules.
+     */
+    private final AlertRuleRepository alertRuleRepository;
+
+    /**
+     * Index evaluated by the consumer.
+     */
+    private final AlertRuleIndex alertRuleIndex;
+
+    @Override
+    public List<AlertRule> getAllRules() {
+        return alertRuleRepository.findAll();
+    }
+
+    @Override
+    public Optional<AlertRule> getRuleById(final Long id) {
+        return alertRuleRepository.findById(id);
+    }
+
+    @Override
+    public List<AlertRule> getRulesBySymbol(final String symbol) {
+        return alertRuleRepository.findBySymbol(symbol);
+    }
+
+    @Override
+    public AlertRule createRule(final AlertRule rule) {
+        rule.setId(null);
+        rule.setCreatedAt(LocalDateTime.now());
+        rule.setThreshold(roundThreshold(rule.getThreshold()));
+        AlertRule created = alertRuleRepository.save(rule);
+        alertRuleIndex.add(created);
+        return created;
+    }
+
+    @Override
+    public Optional<AlertRule> updateRule(final Long id, final AlertRule rule) {
+        return alertRuleRepository.findById(id)
+                .map(existingRule -> {
+                    AlertRule previous = AlertRule.builder()
+                            .id(existingRule.getId())
+                            .symbol(existingRule.getSymbol())
+                            .threshold(existingRule.getThreshold())
+                            .direction(existingRule.getDirection())
+                            .build();
+                    existingRule.setSymbol(rule.getSymbol());
+                    existingRule.setThreshold(roundThreshold(rule.getThreshold()));
+                    existingRule.setDirection(rule.getDirection());
+                    AlertRule updated = alertRuleRepository.save(existingRule);
+                    alertRuleIndex.remove(previous);
+                    alertRuleIndex.add(updated);
+                    return updated;
+                });
+    }
+
+    @Override
+    public boolean deleteRule(final Long id) {
+        return alertRuleRepository.findById(id)
+                .map(existingRule -> {
+                    alertRuleRepository.delete(existingRule);
+                    alertRuleIndex.remove(existingRule);
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    /**
+     * Rounds a threshold to the precision of the threshold column, so that the index evaluates
+     * the same value that is persisted.
+     *
+     * @param threshold the requested threshold.
+     * @return the rounded threshold, or {@code null} if none was given.
+     */
+    private static Double roundThreshold(final Double threshold) {
+        return threshold == null ? null : Ticks.toDouble(Ticks.toScaledPrice(threshold));
+    }
+
+}
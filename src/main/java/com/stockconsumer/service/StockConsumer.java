@@ -1,40 +1,136 @@
 package com.stockconsumer.service;
 
-import com.stockconsumer.model.entity.Stock;
-import com.stockconsumer.model.repository.StockRepository;
+import com.stockconsumer.service.adaptive.AdaptiveBatchController;
+import com.stockconsumer.service.alert.AlertDispatcher;
+import com.stockconsumer.service.alert.AlertRuleIndex;
+import com.stockconsumer.service.alert.AlertTrigger;
+import com.stockconsumer.service.changes.PriceChangeLog;
+import com.stockconsumer.service.history.RecentTickStore;
+import com.stockconsumer.service.snapshot.LatestPricePublisher;
+import com.stockconsumer.service.startup.FirstRecordProbe;
+import com.stockconsumer.service.tick.TickBatch;
+import com.stockconsumer.service.tick.TickWriteException;
+import com.stockconsumer.service.tick.TickWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class StockConsumer {
 
     /**
-     * Stock repository.
+     * Writer persisting the ticks into the stock table.
+     */
+    private final TickWriter tickWriter;
+
+    /**
+     * Controller adapting the batch size to the measured batch latency.
      */
-    private final StockRepository stockRepository;
+    private final AdaptiveBatchController batchController;
+
+    /**
+     * Index of the price alert rules evaluated against every tick.
+     */
+    private final AlertRuleIndex alertRuleIndex;
+
+    /**
+     * Asynchronous delivery of the triggered alerts.
+     */
+    private final AlertDispatcher alertDispatcher;
+
+    /**
+     * Startup probe measuring the time to the first consumed record.
+     */
+    private final FirstRecordProbe firstRecordProbe;
+
+    /**
+     * In-memory buffers of the recent ticks per symbol, answering as-of price lookups.
+     */
+    private final RecentTickStore recentTickStore;
+
+    /**
+     * Conflating publisher of the latest prices to the compacted snapshot topic.
+     */
+    private final LatestPricePublisher latestPricePublisher;
+
+    /**
+     * Versioned log of the price changes, serving delta synchronization.
+     */
+    private final PriceChangeLog priceChangeLog;
+
+    /**
+     * Processing pipeline shared by all ingested feeds.
+     * <p>
+     * Called by the {@link StockFeedListener} of every feed, on the consumer thread of the feed
+     * listener container, once per poll in batch mode or once per record in record mode.
+     * The ticks are evaluated against the price alert rules and flushed to the database in one go.
+     * Once the batch is persisted, the reference prices of the alert rules are moved to the new ticks
+     * (a batch retried after a failed flush is evaluated against the same prices again), the ticks are
+     * appended to the {@link RecentTickStore}, versioned in the {@link PriceChangeLog}, recorded as the
+     * latest prices to publish by the {@link LatestPricePublisher}, and triggered alerts are handed to the
+     * {@link AlertDispatcher}.
+     * Processing and flush times are reported to the {@link AdaptiveBatchController} under the
+     * listener id, together with the ingest latency of every record measured from its Kafka timestamp.
+     * <p>
+     * When the flush fails on a single tick, the ticks before it are persisted and processed on their own,
+     * the batch is truncated to them, and the {@link TickWriteException} is rethrown, so that only the
+     * failing record and the ones after it are retried.
+     * <p>
+     * The batch is reused by the caller after the call; no stage keeps a reference to it.
+     *
+     * @param listenerId id of the feed listener container
+     * @param batch      decoded ticks with the Kafka timestamps of their records
+     * @throws TickWriteException if the flush failed on a single tick
+     */
+    public void consume(final String listenerId, final TickBatch batch) {
+        long start = System.nanoTime();
+        log.info("Consumed {} stock updates from {}", batch.size(), listenerId);
+        if (log.isDebugEnabled()) {
+            batch.toStocks().forEach(stock -> log.debug("Consumed stock update: {}", stock));
+        }
+        List<AlertTrigger> triggers = alertRuleIndex.evaluate(batch);
+
+        long flushStart = System.nanoTime();
+        try {
+            tickWriter.write(batch);
+        } catch (TickWriteException e) {
+            consumeBefore(listenerId, batch, e.getFailedIndex());
+            throw e;
+        }
+        long end = System.nanoTime();
+        alertRuleIndex.commit(batch);
+        recentTickStore.record(batch);
+        priceChangeLog.record(batch);
+        latestPricePublisher.record(batch);
+        if (!triggers.isEmpty()) {
+            alertDispatcher.dispatch(triggers);
+        }
+        firstRecordProbe.recordConsumed();
+
+        batchController.record(listenerId, batch.size(), flushStart - start, end - flushStart);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < batch.size(); i++) {
+            batchController.recordIngestLatency(listenerId, now - batch.kafkaTimestamp(i));
+        }
+    }
 
     /**
-     * Automatically called by the Spring Kafka framework
-     * whenever a message is published to the specified Kafka topic.
-     * Method should listen for messages from a Kafka topic = "stock-prices".
-     * Subscribes the consumer to this Kafka topic.
-     * groupId = "stock-consumer-group": Associates this listener with a consumer group.
-     * Kafka ensures that messages are distributed among consumers in the same group.
-     * When a producer publishes a message to the stock-prices topic,
-     * Kafka sends that message to all consumers in the stock-consumer-group.
-     * Where KafkaListener Deserializes the message (from JSON) into a Stock object.
-     * Calls consume() method, passing the Stock object.
+     * Persists and processes the ticks of a failed batch that precede the failing tick.
      *
-     * @param stock entity
+     * @param listenerId  id of the feed listener container
+     * @param batch       the failed batch, truncated to the ticks before the failing one
+     * @param failedIndex index of the failing tick
      */
-    @KafkaListener(topics = "stock-prices", groupId = "stock-consumer-group")
-    public void consume(final Stock stock) {
-        log.info("Consumed stock update: {}", stock);
-        stockRepository.save(stock);
+    private void consumeBefore(final String listenerId, final TickBatch batch, final int failedIndex) {
+        log.warn("Flush of {} stock updates from {} failed at update {}", batch.size(), listenerId, failedIndex);
+        batch.truncate(failedIndex);
+        if (!batch.isEmpty()) {
+            consume(listenerId, batch);
+        }
     }
 
 }
@@ -0,0 +1,138 @@
+package com.stockconsumer.service;
+
+import com.stockconsumer.service.tick.SymbolDictionary;
+import com.stockconsumer.service.tick.TickBatch;
+import com.stockconsumer.service.tick.TickDecoder;
+import com.stockconsumer.service.tick.TickWriteException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Kafka listener of a single ingested feed.
+ * <p>
+ * One instance is registered per configured feed, bound to the feed listener container.
+ * It decodes the consumed records into a {@link TickBatch} and hands it, tagged with the listener id,
+ * to the shared {@link StockConsumer} pipeline. Each consumer thread of the container reuses its own batch,
+ * so decoding does not allocate per record once the batch has grown to the poll size.
+ * Records that are not valid stock updates are skipped and logged.
+ * <p>
+ * In batch mode, a flush failing on a single tick is reported as a {@link BatchListenerFailedException}
+ * pointing at the record of that tick: the error handler commits the records before it (persisted by the
+ * {@link StockConsumer}) and retries from the failing record, so that a bad record cannot cost the whole poll.
+ */
+@Slf4j
+public class StockFeedListener {
+
+    /**
+     * Id of the listener container the instance is bound to.
+     */
+    private final String listenerId;
+
+    /**
+     * Shared processing pipeline.
+     */
+    private final StockConsumer stockConsumer;
+
+    /**
+     * Decoder of the record values.
+     */
+    private final TickDecoder tickDecoder;
+
+    /**
+     * Batch reused by each consumer thread of the container.
+     */
+    private final ThreadLocal<TickBatch> batches;
+
+    /**
+     * Index of the record of every tick of the batch, reused by each consumer thread of the container.
+     */
+    private final ThreadLocal<int[]> recordIndexes = ThreadLocal.withInitial(() -> new int[64]);
+
+    /**
+     * Creates the listener of a feed.
+     *
+     * @param listenerId    id of the feed listener container.
+     * @param stockConsumer shared processing pipeline.
+     * @param tickDecoder   decoder of the record values.
+     * @param dictionary    dictionary encoding the symbols.
+     */
+    public StockFeedListener(final String listenerId, final StockConsumer stockConsumer,
+                             final TickDecoder tickDecoder, final SymbolDictionary dictionary) {
+        this.listenerId = listenerId;
+        this.stockConsumer = stockConsumer;
+        this.tickDecoder = tickDecoder;
+        this.batches = ThreadLocal.withInitial(() -> new TickBatch(dictionary));
+    }
+
+    /**
+     * Handles all records of a poll (batch processing mode).
+     *
+     * @param records consumed records.
+     */
+    public void onBatch(final List<ConsumerRecord<String, byte[]>> records) {
+        TickBatch batch = batches.get();
+        batch.clear();
+        int[] indexes = recordIndexes.get();
+        if (indexes.length < records.size()) {
+            indexes = Arrays.copyOf(indexes, records.size());
+            recordIndexes.set(indexes);
+        }
+        for (int i = 0; i < records.size(); i++) {
+            if (decode(records.get(i), batch)) {
+                indexes[batch.size() - 1] = i;
+            }
+        }
+        try {
+            stockConsumer.consume(listenerId, batch);
+        } catch (TickWriteException e) {
+            throw new BatchListenerFailedException(e.getMessage(), e, indexes[e.getFailedIndex()]);
+        }
+    }
+
+    /**
+     * Handles a single record (record processing mode).
+     *
+     * @param consumerRecord consumed record.
+     */
+    public void onRecord(final ConsumerRecord<String, byte[]> consumerRecord) {
+        TickBatch batch = batches.get();
+        batch.clear();
+        if (decode(consumerRecord, batch)) {
+            stockConsumer.consume(listenerId, batch);
+        }
+    }
+
+    /**
+     * Returns the listener method matching the processing mode.
+     *
+     * @param batch whether the feed is consumed in batch mode.
+     * @return {@link #onBatch(List)} or {@link #onRecord(ConsumerRecord)}.
+     */
+    public static Method listenerMethod(final boolean batch) {
+        try {
+            return batch
+                    ? StockFeedListener.class.getMethod("onBatch", List.class)
+                    : StockFeedListener.class.getMethod("onRecord", ConsumerRecord.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private boolean decode(final ConsumerRecord<String, byte[]> consumerRecord, final TickBatch batch) {
+        if (consumerRecord.value() == null) {
+            return false;
+        }
+        if (!tickDecoder.decode(consumerRecord.value(), consumerRecord.timestamp(), batch)) {
+            log.warn("Skipping invalid stock update with key {} at {}-{}@{}", consumerRecord.key(),
+                    consumerRecord.topic(), consumerRecord.partition(), consumerRecord.offset());
+            return false;
+        }
+        return true;
+    }
+
+}
@@ -1,7 +1,9 @@
 package com.stockconsumer.service;
 
 import com.stockconsumer.model.entity.Stock;
+import com.stockconsumer.service.changes.PriceChanges;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,6 +36,23 @@ public interface StockService {
      */
     public List<Stock> getStocksBySymbol(String symbol);
 
+    /**
+     * Fetch the price of a stock as of the given time, i.e. its last tick at or before that time.
+     *
+     * @param symbol    of the stock.
+     * @param timestamp the requested time.
+     * @return an {@link Optional} containing the tick, or empty if no tick is known at or before the time.
+     */
+    Optional<Stock> getStockAsOf(String symbol, LocalDateTime timestamp);
+
+    /**
+     * Fetch the latest price of the stocks changed since the given version.
+     *
+     * @param since version token returned by the previous call, {@code null} for the first one.
+     * @return the changes, or the full snapshot if the version is too old or unknown, with the current version.
+     */
+    PriceChanges getChangesSince(String since);
+
     /**
      * Creates a new stock and saves it to the database.
      *
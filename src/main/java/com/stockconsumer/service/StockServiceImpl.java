@@ -2,9 +2,14 @@ package com.stockconsumer.service;
 
 import com.stockconsumer.model.entity.Stock;
 import com.stockconsumer.model.repository.StockRepository;
+import com.stockconsumer.service.changes.PriceChangeLog;
+import com.stockconsumer.service.changes.PriceChanges;
+import com.stockconsumer.service.history.AggregatedPriceHistory;
+import com.stockconsumer.service.history.RecentTickStore;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +26,21 @@ public class StockServiceImpl implements StockService {
      */
     private final StockRepository stockRepository;
 
+    /**
+     * In-memory buffers of the recent ticks, answering as-of lookups within the configured horizon.
+     */
+    private final RecentTickStore recentTickStore;
+
+    /**
+     * Downsampled history, answering as-of lookups beyond the retained raw ticks.
+     */
+    private final AggregatedPriceHistory aggregatedPriceHistory;
+
+    /**
+     * Versioned log of the price changes, serving delta synchronization.
+     */
+    private final PriceChangeLog priceChangeLog;
+
     /**
      * Retrieves all stocks from the database.
      *
@@ -53,6 +73,36 @@ public class StockServiceImpl implements StockService {
         return stockRepository.findBySymbol(symbol);
     }
 
+    /**
+     * Fetch the price of a stock as of the given time.
+     * <p>
+     * Answered by the in-memory recent tick buffers when the time is within their horizon,
+     * and from the persisted ticks otherwise. Times older than the retained ticks are answered
+     * with the close price of the rolled-up aggregate bucket at or before the time.
+     *
+     * @param symbol    of the stock.
+     * @param timestamp the requested time.
+     * @return an {@link Optional} containing the tick, or empty if no tick is known at or before the time.
+     */
+    @Override
+    public Optional<Stock> getStockAsOf(final String symbol, final LocalDateTime timestamp) {
+        return recentTickStore.priceAsOf(symbol, timestamp)
+                .or(() -> stockRepository.findFirstBySymbolAndTimestampLessThanEqualOrderByTimestampDesc(symbol,
+                        timestamp))
+                .or(() -> aggregatedPriceHistory.priceAsOf(symbol, timestamp));
+    }
+
+    /**
+     * Fetch the latest price of the stocks changed since the given version, from the in-memory change log.
+     *
+     * @param since version token returned by the previous call, {@code null} for the first one.
+     * @return the changes, or the full snapshot if the version is too old or unknown, with the current version.
+     */
+    @Override
+    public PriceChanges getChangesSince(final String since) {
+        return priceChangeLog.changesSince(since);
+    }
+
     /**
      * Creates a new stock and saves it to the database.
      *
@@ -0,0 +1,290 @@
+package com.stockconsumer.service.adaptive;
+
+import com.stockconsumer.config.StockConsumerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency driven controller of the consumer batch size.
+ * <p>
+ * Every listener reports the size, processing time and flush time of each batch it handles.
+ * The controller keeps exponentially weighted averages of those measurements and periodically
+ * derives a recommended batch size for the listener:
+ * <ul>
+ *     <li>when the average batch latency exceeds the configured SLO, the size is decreased
+ *     multiplicatively, so a slow database quickly stops pushing us towards the poll-interval timeout;</li>
+ *     <li>when the latency is comfortably below the SLO and polls return full batches (i.e. there is a backlog),
+ *     the size grows towards the number of records that fit into the SLO, at most doubling per step.</li>
+ * </ul>
+ * The recommendation is always kept within the configured bounds. Applying it to the running
+ * containers is done by {@link AdaptivePollTuner}, for the listeners {@link #register registered} as adaptive.
+ * <p>
+ * Only feeds in {@code BATCH} processing mode are registered. A {@code RECORD} mode listener reports one record
+ * per call, so its fill ratio never indicates a backlog and its latency is that of a single record rather than
+ * of a poll; its measurements are published as metrics but its batch size stays as configured.
+ */
+@Component
+@Slf4j
+public class AdaptiveBatchController {
+
+    /**
+     * Fraction of the latency target the growth model aims for, leaving headroom for jitter.
+     */
+    private static final double TARGET_HEADROOM = 0.8;
+
+    /**
+     * Average fill ratio of polled batches above which the consumer is considered backlogged.
+     */
+    private static final double FULL_BATCH_RATIO = 0.8;
+
+    /**
+     * Adaptive settings.
+     */
+    private final StockConsumerProperties.Adaptive settings;
+
+    /**
+     * Registry the controller decisions are published to.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Controller state per listener container id.
+     */
+    private final Map<String, ListenerState> states = new ConcurrentHashMap<>();
+
+    /**
+     * Ids of the listener containers whose batch size is adapted.
+     */
+    private final Set<String> adaptiveListeners = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates the controller.
+     *
+     * @param properties    consumer properties holding the adaptive settings.
+     * @param meterRegistry registry for the controller metrics.
+     */
+    public AdaptiveBatchController(final StockConsumerProperties properties, final MeterRegistry meterRegistry) {
+        this.settings = properties.getAdaptive();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Registers a listener container with its initial batch size, making its batch size adaptive.
+     * Listeners that are not registered start at the configured initial batch size and only get metrics.
+     *
+     * @param listenerId       id of the listener container.
+     * @param initialBatchSize batch size the container starts with.
+     */
+    public void register(final String listenerId, final int initialBatchSize) {
+        states.computeIfAbsent(listenerId, id -> new ListenerState(id, initialBatchSize));
+        adaptiveListeners.add(listenerId);
+    }
+
+    /**
+     * Returns whether the batch size of the listener container is adapted.
+     *
+     * @param listenerId id of the listener container.
+     * @return {@code true} if the listener was registered with {@link #register(String, int)}.
+     */
+    public boolean isAdaptive(final String listenerId) {
+        return adaptiveListeners.contains(listenerId);
+    }
+
+    /**
+     * Records the measurements of a single consumed batch.
+     *
+     * @param listenerId      id of the listener container that consumed the batch.
+     * @param records         number of records in the batch.
+     * @param processingNanos time spent processing the records before the flush.
+     * @param flushNanos      time spent flushing the batch to the database.
+     */
+    public void record(final String listenerId, final int records, final long processingNanos, final long flushNanos) {
+        ListenerState state = state(listenerId);
+        state.processingTimer.record(processingNanos, TimeUnit.NANOSECONDS);
+        state.flushTimer.record(flushNanos, TimeUnit.NANOSECONDS);
+        state.batchRecords.record(records);
+        state.observe(records, processingNanos + flushNanos, settings.getSmoothing());
+    }
+
+    /**
+     * Records the end-to-end ingest latency of a single record, i.e. the time between the record
+     * timestamp assigned by the producer and the completion of its batch flush.
+     *
+     * @param listenerId    id of the listener container that consumed the record.
+     * @param latencyMillis ingest latency in milliseconds.
+     */
+    public void recordIngestLatency(final String listenerId, final long latencyMillis) {
+        state(listenerId).ingestLatency.record(Math.max(0, latencyMillis), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Re-evaluates the recommended batch size of the listener from the measurements gathered so far.
+     *
+     * @param listenerId id of the listener container.
+     * @return the recommended batch size.
+     */
+    public int evaluate(final String listenerId) {
+        ListenerState state = state(listenerId);
+        synchronized (state) {
+            if (state.samples == 0) {
+                return state.recommended;
+            }
+            int current = state.recommended;
+            int next = current;
+            long targetNanos = settings.getTargetLatency().toNanos();
+            if (state.latencyEwma > targetNanos) {
+                next = (int) Math.floor(current * settings.getDecreaseFactor());
+            } else if (state.fillEwma >= FULL_BATCH_RATIO && state.perRecordEwma > 0) {
+                long fitting = (long) (targetNanos * TARGET_HEADROOM / state.perRecordEwma);
+                next = (int) Math.min(fitting, 2L * current);
+                next = Math.max(next, current);
+            }
+            next = clamp(next);
+            if (next != current) {
+                log.info("Adaptive batch size of {}: {} -> {} (avg latency {} ms, avg fill {})", listenerId,
+                        current, next, TimeUnit.NANOSECONDS.toMillis((long) state.latencyEwma),
+                        String.format("%.2f", state.fillEwma));
+                (next > current ? state.increases : state.decreases).increment();
+                state.recommended = next;
+            }
+            state.samples = 0;
+            return next;
+        }
+    }
+
+    /**
+     * Returns the currently recommended batch size of the listener.
+     *
+     * @param listenerId id of the listener container.
+     * @return the recommended batch size.
+     */
+    public int getRecommendedBatchSize(final String listenerId) {
+        return state(listenerId).recommended;
+    }
+
+    /**
+     * Returns the batch size the listener container currently runs with.
+     *
+     * @param listenerId id of the listener container.
+     * @return the applied batch size.
+     */
+    public int getAppliedBatchSize(final String listenerId) {
+        return state(listenerId).applied;
+    }
+
+    /**
+     * Marks the batch size as applied to the listener container.
+     *
+     * @param listenerId id of the listener container.
+     * @param batchSize  batch size the container was re-configured with.
+     */
+    public void markApplied(final String listenerId, final int batchSize) {
+        state(listenerId).applied = batchSize;
+    }
+
+    /**
+     * Derives the Kafka consumer fetch properties matching the given batch size.
+     * <p>
+     * Larger batches let the broker accumulate more data per fetch ({@code fetch.min.bytes}),
+     * bounded by {@code fetch.max.wait.ms} so that a quiet topic does not add latency.
+     *
+     * @param batchSize effective batch size.
+     * @return consumer properties to apply.
+     */
+    public Map<String, Object> fetchProperties(final int batchSize) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchSize);
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, Math.max(1, batchSize * settings.getEstimatedRecordBytes() / 2));
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, settings.getMaxFetchWaitMs());
+        return props;
+    }
+
+    private int clamp(final int batchSize) {
+        return Math.max(settings.getMinBatchSize(), Math.min(settings.getMaxBatchSize(), batchSize));
+    }
+
+    private ListenerState state(final String listenerId) {
+        return states.computeIfAbsent(listenerId, id -> new ListenerState(id, settings.getInitialBatchSize()));
+    }
+
+    /**
+     * Measurements, decisions and meters of a single listener container.
+     */
+    private final class ListenerState {
+
+        private final Timer processingTimer;
+
+        private final Timer flushTimer;
+
+        private final DistributionSummary batchRecords;
+
+        private final Timer ingestLatency;
+
+        private final Counter increases;
+
+        private final Counter decreases;
+
+        private volatile int recommended;
+
+        private volatile int applied;
+
+        private double latencyEwma;
+
+        private double perRecordEwma;
+
+        private double fillEwma;
+
+        private int samples;
+
+        ListenerState(final String listenerId, final int initialBatchSize) {
+            this.recommended = clamp(initialBatchSize);
+            this.applied = initialBatchSize;
+            this.processingTimer = Timer.builder("stock.consumer.batch.processing")
+                    .tag("listener", listenerId).register(meterRegistry);
+            this.flushTimer = Timer.builder("stock.consumer.batch.flush")
+                    .tag("listener", listenerId).register(meterRegistry);
+            this.batchRecords = DistributionSummary.builder("stock.consumer.batch.records")
+                    .tag("listener", listenerId).register(meterRegistry);
+            this.ingestLatency = Timer.builder("stock.consumer.ingest.latency")
+                    .tag("listener", listenerId)
+                    .publishPercentiles(0.5, 0.99, 0.999)
+                    .register(meterRegistry);
+            this.increases = Counter.builder("stock.consumer.batch.adjustments")
+                    .tag("listener", listenerId).tag("direction", "up").register(meterRegistry);
+            this.decreases = Counter.builder("stock.consumer.batch.adjustments")
+                    .tag("listener", listenerId).tag("direction", "down").register(meterRegistry);
+            Gauge.builder("stock.consumer.batch.size.recommended", this, s -> s.recommended)
+                    .tag("listener", listenerId).register(meterRegistry);
+            Gauge.builder("stock.consumer.batch.size.applied", this, s -> s.applied)
+                    .tag("listener", listenerId).register(meterRegistry);
+        }
+
+        synchronized void observe(final int records, final long latencyNanos, final double alpha) {
+            double perRecord = (double) latencyNanos / Math.max(1, records);
+            double fill = Math.min(1.0, (double) records / Math.max(1, applied));
+            if (samples == 0 && latencyEwma == 0) {
+                latencyEwma = latencyNanos;
+                perRecordEwma = perRecord;
+                fillEwma = fill;
+            } else {
+                latencyEwma = alpha * latencyNanos + (1 - alpha) * latencyEwma;
+                perRecordEwma = alpha * perRecord + (1 - alpha) * perRecordEwma;
+                fillEwma = alpha * fill + (1 - alpha) * fillEwma;
+            }
+            samples++;
+        }
+    }
+
+}
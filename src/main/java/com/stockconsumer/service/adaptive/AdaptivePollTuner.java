@@ -0,0 +1,101 @@
+package com.stockconsumer.service.adaptive;
+
+import com.stockconsumer.config.StockConsumerProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies the batch sizes recommended by {@link AdaptiveBatchController} to the running listener containers.
+ * <p>
+ * {@code max.poll.records} and the fetch settings are read by the Kafka consumer only when it is created,
+ * so a new value is applied by overriding the container consumer properties and restarting the container.
+ * To avoid restart storms, a container is re-configured only when the recommendation differs from the
+ * applied value by at least the configured ratio and the cooldown since its last re-configuration has passed.
+ * Containers of {@code RECORD} mode feeds are not registered as adaptive and are left untouched.
+ * Restarts are synchronized on the container, so they never interleave with the restarts of the
+ * {@link com.stockconsumer.service.scaling.ConcurrencyScaler}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AdaptivePollTuner {
+
+    /**
+     * Consumer properties holding the adaptive settings.
+     */
+    private final StockConsumerProperties properties;
+
+    /**
+     * Controller providing the recommended batch sizes.
+     */
+    private final AdaptiveBatchController batchController;
+
+    /**
+     * Registry of the running listener containers.
+     */
+    private final KafkaListenerEndpointRegistry registry;
+
+    /**
+     * Time (epoch millis) of the last re-configuration per listener container id.
+     */
+    private final Map<String, Long> lastApplied = new ConcurrentHashMap<>();
+
+    /**
+     * Periodically re-evaluates the batch size of every listener container and applies significant changes.
+     */
+    @Scheduled(fixedDelayString = "${stock.consumer.adaptive.adjust-interval:10s}",
+            initialDelayString = "${stock.consumer.adaptive.adjust-interval:10s}")
+    public void adjust() {
+        for (MessageListenerContainer container : registry.getListenerContainers()) {
+            adjust(container);
+        }
+    }
+
+    /**
+     * Re-evaluates and, when needed, re-configures a single listener container.
+     *
+     * @param container the listener container.
+     */
+    void adjust(final MessageListenerContainer container) {
+        String listenerId = container.getListenerId();
+        if (!batchController.isAdaptive(listenerId)) {
+            return;
+        }
+        int recommended = batchController.evaluate(listenerId);
+        if (!properties.getAdaptive().isEnabled()) {
+            return;
+        }
+        int applied = batchController.getAppliedBatchSize(listenerId);
+        if (Math.abs(recommended - applied) < Math.max(1, applied * properties.getAdaptive().getMinChangeRatio())) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Long last = lastApplied.get(listenerId);
+        if (last != null && now - last < properties.getAdaptive().getCooldown().toMillis()) {
+            return;
+        }
+
+        Properties overrides = container.getContainerProperties().getKafkaConsumerProperties();
+        batchController.fetchProperties(recommended)
+                .forEach((key, value) -> overrides.setProperty(key, String.valueOf(value)));
+        synchronized (container) {
+            if (container.isRunning()) {
+                log.info("Restarting listener container {} with batch size {} (was {})", listenerId, recommended,
+                        applied);
+                container.stop();
+                container.start();
+            }
+        }
+        batchController.markApplied(listenerId, recommended);
+        lastApplied.put(listenerId, now);
+    }
+
+}
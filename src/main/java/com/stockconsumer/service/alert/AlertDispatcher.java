@@ -0,0 +1,127 @@
+package com.stockconsumer.service.alert;
+
+import com.stockconsumer.config.StockConsumerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous, batching hand-off of triggered alerts to the {@link AlertNotifier}.
+ * <p>
+ * The consumer thread only enqueues triggers into a bounded queue; a dedicated dispatcher thread
+ * drains it in batches and delivers them. When the queue is full, triggers are dropped and counted
+ * rather than blocking ingestion.
+ */
+@Component
+@Slf4j
+public class AlertDispatcher {
+
+    /**
+     * Receiver of the triggered alerts.
+     */
+    private final AlertNotifier notifier;
+
+    /**
+     * Maximum number of triggers delivered to the notifier at once.
+     */
+    private final int batchSize;
+
+    /**
+     * Triggers waiting for delivery.
+     */
+    private final BlockingQueue<AlertTrigger> queue;
+
+    private final Counter triggered;
+
+    private final Counter dropped;
+
+    private final Thread worker;
+
+    private volatile boolean running = true;
+
+    /**
+     * Creates the dispatcher.
+     *
+     * @param notifier      receiver of the triggered alerts.
+     * @param properties    consumer properties holding the alert settings.
+     * @param meterRegistry registry for the dispatcher metrics.
+     */
+    public AlertDispatcher(final AlertNotifier notifier, final StockConsumerProperties properties,
+                           final MeterRegistry meterRegistry) {
+        this.notifier = notifier;
+        this.batchSize = properties.getAlerts().getDispatchBatchSize();
+        this.queue = new ArrayBlockingQueue<>(properties.getAlerts().getQueueCapacity());
+        this.triggered = Counter.builder("stock.alert.triggered").register(meterRegistry);
+        this.dropped = Counter.builder("stock.alert.dropped").register(meterRegistry);
+        Gauge.builder("stock.alert.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        this.worker = new Thread(this::run, "alert-dispatcher");
+        this.worker.setDaemon(true);
+    }
+
+    /**
+     * Starts the dispatcher thread.
+     */
+    @PostConstruct
+    public void start() {
+        worker.start();
+    }
+
+    /**
+     * Stops the dispatcher thread after delivering the queued triggers.
+     *
+     * @throws InterruptedException if interrupted while waiting for the thread to finish.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Enqueues triggered alerts for asynchronous delivery. Never blocks.
+     *
+     * @param triggers the triggered alerts.
+     */
+    public void dispatch(final List<AlertTrigger> triggers) {
+        for (AlertTrigger trigger : triggers) {
+            if (queue.offer(trigger)) {
+                triggered.increment();
+            } else {
+                dropped.increment();
+            }
+        }
+    }
+
+    private void run() {
+        List<AlertTrigger> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AlertTrigger first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                notifier.notify(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Failed to deliver {} alerts: {}", batch.size(), e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.stockconsumer.service.alert;
+
+import java.util.List;
+
+/**
+ * Delivers triggered alerts to their recipients.
+ * <p>
+ * Called by {@link AlertDispatcher} on its own thread with batches of triggers,
+ * never on the Kafka consumer thread.
+ */
+public interface AlertNotifier {
+
+    /**
+     * Delivers a batch of triggered alerts.
+     *
+     * @param triggers the triggered alerts, in the order they were detected.
+     */
+    void notify(List<AlertTrigger> triggers);
+
+}
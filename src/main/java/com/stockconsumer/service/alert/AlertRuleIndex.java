@@ -0,0 +1,396 @@
+package com.stockconsumer.service.alert;
+
+import com.stockconsumer.model.entity.AlertDirection;
+import com.stockconsumer.model.entity.AlertRule;
+import com.stockconsumer.model.entity.Stock;
+import com.stockconsumer.model.repository.AlertRuleRepository;
+import com.stockconsumer.model.repository.StockRepository;
+import com.stockconsumer.service.tick.SymbolDictionary;
+import com.stockconsumer.service.tick.TickBatch;
+import com.stockconsumer.service.tick.Ticks;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory index of the alert rules used on the ingest path.
+ * <p>
+ * Rules are grouped per symbol id and kept in two arrays sorted by their scaled threshold, one per crossing
+ * direction. A tick moving the price from {@code p0} to {@code p1} only has to binary-search the range of
+ * thresholds between the two prices, so the evaluation cost depends on the number of triggered rules rather
+ * than on the number of registered rules:
+ * <ul>
+ *     <li>{@link AlertDirection#ABOVE} rules with {@code p0 < threshold <= p1} trigger on a rising price;</li>
+ *     <li>{@link AlertDirection#BELOW} rules with {@code p1 <= threshold < p0} trigger on a falling price.</li>
+ * </ul>
+ * The arrays are immutable and swapped copy-on-write when a rule changes, so evaluation reads them without locks.
+ * Prices and thresholds are compared in the scaled encoding of {@link Ticks}; evaluating a batch without
+ * triggers does not allocate.
+ * <p>
+ * The index also remembers the last persisted price of every symbol, which is the reference for the next tick.
+ * Evaluation and commit of a batch are separate steps: {@link #evaluate(TickBatch)} does not change the reference
+ * prices, which are only moved by {@link #commit(TickBatch)} once the batch has been persisted. A batch retried
+ * after a failed flush is therefore evaluated against the same prices again.
+ * <p>
+ * The persisted rules, and the latest persisted price of every symbol as its initial reference, are loaded when
+ * the application context starts, before the Kafka listener containers, rather than during bean initialization,
+ * so that the context can be refreshed without a database (e.g. for the CDS training run).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AlertRuleIndex implements SmartLifecycle {
+
+    /**
+     * Lifecycle phase of the index, ahead of the Kafka listener containers.
+     */
+    private static final int PHASE = AbstractMessageListenerContainer.DEFAULT_PHASE - 100;
+
+    /**
+     * Reference price of a symbol whose price is not known yet.
+     */
+    private static final long UNKNOWN = Long.MIN_VALUE;
+
+    /**
+     * Repository the index is loaded from on startup.
+     */
+    private final AlertRuleRepository alertRuleRepository;
+
+    /**
+     * Repository the reference prices are seeded from.
+     */
+    private final StockRepository stockRepository;
+
+    /**
+     * Dictionary of the symbol ids the rules and reference prices are indexed by.
+     */
+    private final SymbolDictionary dictionary;
+
+    /**
+     * Registry for the index metrics.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Rules by id per symbol, from which the evaluated arrays are built; guarded by {@code this}.
+     */
+    private final Map<String, Map<Long, AlertRule>> rulesBySymbol = new HashMap<>();
+
+    /**
+     * Evaluated rules per symbol id, {@code null} for symbols without rules; replaced as a whole on every change.
+     */
+    private volatile SymbolRules[] rulesById = new SymbolRules[0];
+
+    /**
+     * Scaled reference price per symbol id; written under {@code this}, replaced when it grows.
+     */
+    private volatile AtomicLongArray referencePrices = new AtomicLongArray(0);
+
+    /**
+     * Scaled prices pending within the batch evaluated by the current thread, per symbol id.
+     */
+    private final ThreadLocal<long[]> pendingPrices = ThreadLocal.withInitial(() -> new long[0]);
+
+    /**
+     * Number of indexed rules.
+     */
+    private final AtomicInteger ruleCount = new AtomicInteger();
+
+    /**
+     * Whether the persisted rules have been loaded.
+     */
+    private volatile boolean running;
+
+    /**
+     * Loads the persisted rules and the latest persisted price of every symbol into the index.
+     */
+    public void load() {
+        Gauge.builder("stock.alert.rules", ruleCount, AtomicInteger::get).register(meterRegistry);
+        List<AlertRule> rules = alertRuleRepository.findAll();
+        List<Stock> latest = stockRepository.findLatestPerSymbol();
+        synchronized (this) {
+            for (AlertRule rule : rules) {
+                put(rule);
+            }
+            publish(rulesBySymbol.keySet());
+            for (Stock stock : latest) {
+                int id = dictionary.idOf(stock.getSymbol());
+                if (id != SymbolDictionary.NO_ID) {
+                    referencePricesFor(id).compareAndSet(id, UNKNOWN, Ticks.toScaledPrice(stock.getPrice()));
+                }
+            }
+        }
+        log.info("Loaded {} alert rules and the reference prices of {} symbols", rules.size(), latest.size());
+    }
+
+    @Override
+    public void start() {
+        load();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * Adds a rule to the index.
+     *
+     * @param rule a persisted rule.
+     */
+    public synchronized void add(final AlertRule rule) {
+        put(rule);
+        publish(List.of(rule.getSymbol()));
+    }
+
+    /**
+     * Removes a rule from the index.
+     *
+     * @param rule a rule previously added with {@link #add(AlertRule)}, with the symbol it was added with.
+     */
+    public synchronized void remove(final AlertRule rule) {
+        Map<Long, AlertRule> rules = rulesBySymbol.get(rule.getSymbol());
+        if (rules == null || rules.remove(rule.getId()) == null) {
+            return;
+        }
+        ruleCount.decrementAndGet();
+        publish(List.of(rule.getSymbol()));
+        if (rules.isEmpty()) {
+            rulesBySymbol.remove(rule.getSymbol());
+        }
+    }
+
+    /**
+     * Evaluates a batch of ticks in order and collects the triggered rules.
+     * <p>
+     * Each tick is compared with the previous tick of its symbol in the batch, or with the reference price
+     * for the first one. The reference prices are left unchanged until {@link #commit(TickBatch)}.
+     *
+     * @param batch ticks to evaluate.
+     * @return the triggered rules, empty if none.
+     */
+    public List<AlertTrigger> evaluate(final TickBatch batch) {
+        SymbolRules[] rules = rulesById;
+        AtomicLongArray references = referencePrices;
+        long[] pending = pendingPrices(rules.length);
+        List<AlertTrigger> triggers = null;
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                int id = batch.symbolId(i);
+                SymbolRules symbolRules = id < rules.length ? rules[id] : null;
+                if (symbolRules == null) {
+                    continue;
+                }
+                long price = batch.scaledPrice(i);
+                long previous = pending[id] != UNKNOWN ? pending[id]
+                        : id < references.length() ? references.get(id) : UNKNOWN;
+                pending[id] = price;
+                if (previous != UNKNOWN && previous != price) {
+                    triggers = symbolRules.crossed(previous, price, batch.epochMicros(i), triggers);
+                }
+            }
+        } finally {
+            for (int i = 0; i < batch.size(); i++) {
+                if (batch.symbolId(i) < rules.length) {
+                    pending[batch.symbolId(i)] = UNKNOWN;
+                }
+            }
+        }
+        return triggers != null ? triggers : List.of();
+    }
+
+    /**
+     * Moves the reference price of every symbol of a persisted batch to its last tick in the batch.
+     *
+     * @param batch ticks evaluated with {@link #evaluate(TickBatch)} and persisted since.
+     */
+    public synchronized void commit(final TickBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            int id = batch.symbolId(i);
+            referencePricesFor(id).set(id, batch.scaledPrice(i));
+        }
+    }
+
+    /**
+     * Returns the number of indexed rules.
+     *
+     * @return the number of rules.
+     */
+    public int size() {
+        return ruleCount.get();
+    }
+
+    private void put(final AlertRule rule) {
+        Map<Long, AlertRule> rules = rulesBySymbol.computeIfAbsent(rule.getSymbol(), symbol -> new HashMap<>());
+        if (rules.put(rule.getId(), rule) == null) {
+            ruleCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Rebuilds the evaluated rules of the given symbols and publishes them with a single copy of the table.
+     * Symbols left out of a full {@link SymbolDictionary} are skipped, as none of their ticks are ingested.
+     */
+    private void publish(final Collection<String> symbols) {
+        SymbolRules[] next = rulesById;
+        for (String symbol : symbols) {
+            int id = dictionary.idOf(symbol);
+            if (id == SymbolDictionary.NO_ID) {
+                continue;
+            }
+            if (next == rulesById || id >= next.length) {
+                next = Arrays.copyOf(next, Math.max(next.length, id + 1));
+            }
+            Map<Long, AlertRule> rules = rulesBySymbol.get(symbol);
+            next[id] = rules == null || rules.isEmpty() ? null : SymbolRules.of(rules.values());
+        }
+        rulesById = next;
+    }
+
+    /**
+     * Returns the reference prices, grown to hold the given symbol id; called under {@code this}.
+     */
+    private AtomicLongArray referencePricesFor(final int id) {
+        AtomicLongArray prices = referencePrices;
+        if (id >= prices.length()) {
+            AtomicLongArray grown = new AtomicLongArray(Math.max(id + 1, Math.max(64, prices.length() * 2)));
+            for (int i = 0; i < grown.length(); i++) {
+                grown.set(i, i < prices.length() ? prices.get(i) : UNKNOWN);
+            }
+            referencePrices = grown;
+            return grown;
+        }
+        return prices;
+    }
+
+    private long[] pendingPrices(final int size) {
+        long[] pending = pendingPrices.get();
+        if (pending.length < size) {
+            pending = new long[Math.max(size, pending.length * 2)];
+            Arrays.fill(pending, UNKNOWN);
+            pendingPrices.set(pending);
+        }
+        return pending;
+    }
+
+    /**
+     * Immutable rules of a single symbol, per direction sorted by scaled threshold.
+     */
+    private record SymbolRules(long[] aboveThresholds, AlertRule[] above, long[] belowThresholds, AlertRule[] below) {
+
+        static SymbolRules of(final Collection<AlertRule> rules) {
+            List<AlertRule> above = new ArrayList<>();
+            List<AlertRule> below = new ArrayList<>();
+            for (AlertRule rule : rules) {
+                (rule.getDirection() == AlertDirection.ABOVE ? above : below).add(rule);
+            }
+            Comparator<AlertRule> byThreshold =
+                    Comparator.comparingLong(rule -> Ticks.toScaledPrice(rule.getThreshold()));
+            above.sort(byThreshold);
+            below.sort(byThreshold);
+            return new SymbolRules(thresholds(above), above.toArray(AlertRule[]::new),
+                    thresholds(below), below.toArray(AlertRule[]::new));
+        }
+
+        /**
+         * Collects the rules crossed by a price change from {@code previous} to {@code price}.
+         *
+         * @return the receiver, created on the first triggered rule.
+         */
+        List<AlertTrigger> crossed(final long previous, final long price, final long epochMicros,
+                                   final List<AlertTrigger> triggers) {
+            AlertRule[] rules;
+            int from;
+            int to;
+            if (price > previous) {
+                rules = above;
+                from = upperBound(aboveThresholds, previous);
+                to = upperBound(aboveThresholds, price);
+            } else {
+                rules = below;
+                from = lowerBound(belowThresholds, price);
+                to = lowerBound(belowThresholds, previous);
+            }
+            if (from >= to) {
+                return triggers;
+            }
+            List<AlertTrigger> result = triggers != null ? triggers : new ArrayList<>();
+            double previousPrice = Ticks.toDouble(previous);
+            double newPrice = Ticks.toDouble(price);
+            LocalDateTime timestamp = Ticks.toLocalDateTime(epochMicros);
+            for (int i = from; i < to; i++) {
+                result.add(new AlertTrigger(rules[i], previousPrice, newPrice, timestamp));
+            }
+            return result;
+        }
+
+        private static long[] thresholds(final List<AlertRule> rules) {
+            long[] thresholds = new long[rules.size()];
+            for (int i = 0; i < thresholds.length; i++) {
+                thresholds[i] = Ticks.toScaledPrice(rules.get(i).getThreshold());
+            }
+            return thresholds;
+        }
+
+        /**
+         * Index of the first threshold greater than or equal to the value.
+         */
+        private static int lowerBound(final long[] thresholds, final long value) {
+            int low = 0;
+            int high = thresholds.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (thresholds[mid] < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Index of the first threshold greater than the value.
+         */
+        private static int upperBound(final long[] thresholds, final long value) {
+            int low = 0;
+            int high = thresholds.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (thresholds[mid] <= value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+}
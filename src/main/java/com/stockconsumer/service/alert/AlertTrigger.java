@@ -0,0 +1,16 @@
+package com.stockconsumer.service.alert;
+
+import com.stockconsumer.model.entity.AlertRule;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notification that a price tick crossed the threshold of an alert rule.
+ *
+ * @param rule          the triggered rule.
+ * @param previousPrice price of the symbol before the tick.
+ * @param price         price carried by the tick.
+ * @param timestamp     timestamp of the tick.
+ */
+public record AlertTrigger(AlertRule rule, double previousPrice, double price, LocalDateTime timestamp) {
+}
@@ -0,0 +1,24 @@
+package com.stockconsumer.service.alert;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Default {@link AlertNotifier} writing the triggered alerts to the application log.
+ */
+@Component
+@Slf4j
+public class LoggingAlertNotifier implements AlertNotifier {
+
+    @Override
+    public void notify(final List<AlertTrigger> triggers) {
+        for (AlertTrigger trigger : triggers) {
+            log.info("Alert {}: {} crossed {} {} ({} -> {}) at {}", trigger.rule().getId(),
+                    trigger.rule().getSymbol(), trigger.rule().getDirection(), trigger.rule().getThreshold(),
+                    trigger.previousPrice(), trigger.price(), trigger.timestamp());
+        }
+    }
+
+}
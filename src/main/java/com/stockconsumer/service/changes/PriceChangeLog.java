@@ -0,0 +1,283 @@
+package com.stockconsumer.service.changes;
+
+import com.stockconsumer.config.StockConsumerProperties;
+import com.stockconsumer.model.entity.Stock;
+import com.stockconsumer.model.repository.StockRepository;
+import com.stockconsumer.service.tick.SymbolDictionary;
+import com.stockconsumer.service.tick.TickBatch;
+import com.stockconsumer.service.tick.Ticks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Versioned in-memory log of the price changes, serving delta synchronization.
+ * <p>
+ * Every ingested tick increments a monotonic version. The log keeps the latest price, time and
+ * version of every symbol in arrays indexed by the symbol id, and the symbol id of each of the last
+ * {@code capacity} versions in a ring buffer. A client that last synced at version {@code since} gets
+ * the symbols whose latest version is greater, found by walking the ring from {@code since}; each symbol
+ * is reported once, at its latest version. When {@code since} is no longer covered by the ring, or is
+ * ahead of the current version, the client gets the full snapshot instead.
+ * <p>
+ * Versions only order the changes seen by one instance during one run, so clients get them as opaque tokens
+ * {@code <epoch>-<version>}, where the epoch is a random id drawn on startup. A token of another instance or of
+ * a previous run does not match the epoch and gets the full snapshot. Several instances behind a load balancer
+ * thus answer correctly, but a client only gets deltas as long as it is routed to the same instance, so the
+ * endpoint should be served with sticky routing.
+ * <p>
+ * The latest persisted price of every symbol is loaded when the application context starts, ahead of the
+ * listener containers, so that snapshots are complete after a restart. Loaded prices carry the initial version.
+ */
+@Component
+@Slf4j
+public class PriceChangeLog implements SmartLifecycle {
+
+    /**
+     * Lifecycle phase of the log, ahead of the Kafka listener containers.
+     */
+    private static final int PHASE = AbstractMessageListenerContainer.DEFAULT_PHASE - 100;
+
+    private final StockRepository stockRepository;
+
+    private final SymbolDictionary dictionary;
+
+    /**
+     * Symbol id per version, at index {@code version % capacity}.
+     */
+    private final int[] ring;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Counter deltas;
+
+    private final Counter snapshots;
+
+    /**
+     * Random id of this instance and run, prefixed to the version tokens.
+     */
+    private final String epoch;
+
+    /**
+     * Current version; guarded by {@link #lock}.
+     */
+    private long version;
+
+    private long[] prices = new long[0];
+
+    private long[] times = new long[0];
+
+    private long[] versions = new long[0];
+
+    private boolean[] known = new boolean[0];
+
+    private volatile boolean running;
+
+    /**
+     * Creates the change log.
+     *
+     * @param properties      consumer properties holding the change log settings.
+     * @param stockRepository repository the latest prices are loaded from on startup.
+     * @param dictionary      dictionary of the symbol ids.
+     * @param meterRegistry   registry for the change log metrics.
+     */
+    public PriceChangeLog(final StockConsumerProperties properties, final StockRepository stockRepository,
+                          final SymbolDictionary dictionary, final MeterRegistry meterRegistry) {
+        this.stockRepository = stockRepository;
+        this.dictionary = dictionary;
+        this.ring = new int[properties.getChanges().getCapacity()];
+        this.epoch = Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), Character.MAX_RADIX);
+        this.deltas = Counter.builder("stock.changes.requests").tag("type", "delta").register(meterRegistry);
+        this.snapshots = Counter.builder("stock.changes.requests").tag("type", "snapshot").register(meterRegistry);
+        Gauge.builder("stock.changes.version", this, PriceChangeLog::currentVersion).register(meterRegistry);
+    }
+
+    /**
+     * Loads the latest persisted price of every symbol.
+     */
+    public void load() {
+        List<Stock> latest = stockRepository.findLatestPerSymbol();
+        lock.writeLock().lock();
+        try {
+            for (Stock stock : latest) {
+                int id = dictionary.idOf(stock.getSymbol());
+                if (id == SymbolDictionary.NO_ID) {
+                    continue;
+                }
+                long time = Ticks.toEpochMicros(stock.getTimestamp());
+                ensureCapacity(id);
+                if (!known[id] || time >= times[id]) {
+                    update(id, Ticks.toScaledPrice(stock.getPrice()), time, 0);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Loaded the latest prices of {} symbols", latest.size());
+    }
+
+    @Override
+    public void start() {
+        load();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * Records the ticks of a persisted batch, each one under the next version.
+     * Ticks older than the latest known price of their symbol do not change it and get no version.
+     *
+     * @param batch the persisted ticks.
+     */
+    public void record(final TickBatch batch) {
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                int id = batch.symbolId(i);
+                ensureCapacity(id);
+                if (known[id] && batch.epochMicros(i) < times[id]) {
+                    continue;
+                }
+                version++;
+                ring[(int) (version % ring.length)] = id;
+                update(id, batch.scaledPrice(i), batch.epochMicros(i), version);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the latest price of the symbols changed since the given version, in order of change,
+     * or the full snapshot if the version is not covered by the log or was issued by another instance or run.
+     * <p>
+     * Only the ids, prices and times are copied under the lock; the entities are built after releasing it,
+     * so that large snapshots do not hold up {@link #record(TickBatch)} on the consumer threads.
+     *
+     * @param since version token of the client copy; {@code null} requests the full snapshot.
+     * @return the changes and the current version token.
+     */
+    public PriceChanges changesSince(final String since) {
+        return changesSince(parseVersion(since));
+    }
+
+    private PriceChanges changesSince(final long since) {
+        long current;
+        boolean snapshot;
+        int count = 0;
+        int[] ids;
+        long[] changedPrices;
+        long[] changedTimes;
+        lock.readLock().lock();
+        try {
+            current = version;
+            snapshot = since < 0 || since > version || version - since > ring.length;
+            int maxCount = snapshot ? known.length : (int) (version - since);
+            ids = new int[maxCount];
+            changedPrices = new long[maxCount];
+            changedTimes = new long[maxCount];
+            if (snapshot) {
+                for (int id = 0; id < known.length; id++) {
+                    if (known[id]) {
+                        ids[count] = id;
+                        changedPrices[count] = prices[id];
+                        changedTimes[count++] = times[id];
+                    }
+                }
+            } else {
+                for (long v = since + 1; v <= version; v++) {
+                    int id = ring[(int) (v % ring.length)];
+                    if (versions[id] == v) {
+                        ids[count] = id;
+                        changedPrices[count] = prices[id];
+                        changedTimes[count++] = times[id];
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        (snapshot ? snapshots : deltas).increment();
+        List<Stock> stocks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            stocks.add(Stock.builder()
+                    .symbol(dictionary.symbol(ids[i]))
+                    .price(Ticks.toDouble(changedPrices[i]))
+                    .timestamp(Ticks.toLocalDateTime(changedTimes[i]))
+                    .build());
+        }
+        return new PriceChanges(epoch + '-' + current, snapshot, stocks);
+    }
+
+    /**
+     * Returns the current version.
+     *
+     * @return the version of the last recorded change.
+     */
+    public long currentVersion() {
+        lock.readLock().lock();
+        try {
+            return version;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the version of a token issued by this instance and run, {@code -1} for any other token.
+     */
+    private long parseVersion(final String token) {
+        if (token == null || token.length() <= epoch.length() + 1 || !token.startsWith(epoch)
+                || token.charAt(epoch.length()) != '-') {
+            return -1;
+        }
+        try {
+            return Long.parseLong(token, epoch.length() + 1, token.length(), 10);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void update(final int id, final long price, final long time, final long changeVersion) {
+        prices[id] = price;
+        times[id] = time;
+        versions[id] = changeVersion;
+        known[id] = true;
+    }
+
+    private void ensureCapacity(final int id) {
+        if (id >= known.length) {
+            int capacity = Math.max(id + 1, Math.max(64, known.length * 2));
+            prices = Arrays.copyOf(prices, capacity);
+            times = Arrays.copyOf(times, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            known = Arrays.copyOf(known, capacity);
+        }
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.stockconsumer.service.changes;
+
+import com.stockconsumer.model.entity.Stock;
+
+import java.util.List;
+
+/**
+ * Answer to a delta synchronization request.
+ *
+ * @param version  opaque token of the current version; the client passes it as {@code since} on its next request.
+ * @param snapshot {@code true} if {@code stocks} is the full snapshot of latest prices, which replaces the
+ *                 client copy, {@code false} if it only holds the symbols changed since the requested version.
+ * @param stocks   latest price of every changed symbol (or of every symbol for a snapshot).
+ */
+public record PriceChanges(String version, boolean snapshot, List<Stock> stocks) {
+}
@@ -0,0 +1,56 @@
+package com.stockconsumer.service.history;
+
+import com.stockconsumer.model.entity.Stock;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Downsampled price history, answering as-of lookups older than the retained raw ticks.
+ * <p>
+ * Ticks beyond the retention period are rolled up into the OHLC buckets of the {@code stock_aggregate} table
+ * by the {@link com.stockconsumer.service.retention.RetentionJob}. The price as of a time is the close price
+ * of the latest bucket ending at or before it: the close of a bucket still open at that time may come from a
+ * later tick, so the ticks of that bucket are skipped and a lookup is accurate to the bucket size. When
+ * buckets of several sizes end at the same time, the finest one is used.
+ */
+@Component
+public class AggregatedPriceHistory {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates the history.
+     *
+     * @param jdbcTemplate JDBC access to the aggregate table.
+     */
+    public AggregatedPriceHistory(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Finds the close price of the latest bucket of the symbol ending at or before the given time.
+     *
+     * @param symbol    symbol of the stock.
+     * @param timestamp the requested time.
+     * @return an {@link Optional} containing an unsaved stock with the close price and the bucket start,
+     * or empty if no bucket ends at or before the time.
+     */
+    public Optional<Stock> priceAsOf(final String symbol, final LocalDateTime timestamp) {
+        return jdbcTemplate.query(
+                "SELECT close_price, bucket_start FROM stock_aggregate WHERE symbol = ? AND bucket_start <= ?"
+                        + " AND bucket_start + bucket_seconds * INTERVAL '1' SECOND <= ?"
+                        + " ORDER BY bucket_start + bucket_seconds * INTERVAL '1' SECOND DESC, bucket_seconds"
+                        + " LIMIT 1",
+                (rs, rowNum) -> Stock.builder()
+                        .symbol(symbol)
+                        .price(rs.getBigDecimal(1).doubleValue())
+                        .timestamp(rs.getTimestamp(2).toLocalDateTime())
+                        .build(),
+                symbol, Timestamp.valueOf(timestamp), Timestamp.valueOf(timestamp)).stream().findFirst();
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.stockconsumer.service.history;
+
+import com.stockconsumer.config.StockConsumerProperties;
+import com.stockconsumer.model.entity.Stock;
+import com.stockconsumer.service.tick.TickBatch;
+import com.stockconsumer.service.tick.Ticks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory history of the recent ticks of every symbol, answering "price of X at time T" lookups.
+ * <p>
+ * Every consumed tick is appended to the {@link TickRingBuffer} of its symbol, which keeps the ticks
+ * of the configured horizon sorted by time. A lookup binary-searches the buffer for the last tick at or
+ * before the requested time. A lookup is answered from memory only when the requested time is not older
+ * than the oldest buffered tick; otherwise the last tick before it may have been evicted and the caller
+ * has to fall back to the persisted history.
+ * <p>
+ * Times and prices are kept in the compact encoding of {@link Ticks}.
+ */
+@Component
+public class RecentTickStore {
+
+    /**
+     * Recent tick settings.
+     */
+    private final StockConsumerProperties.RecentTicks settings;
+
+    /**
+     * Buffered ticks per symbol.
+     */
+    private final Map<String, TickRingBuffer> buffers = new ConcurrentHashMap<>();
+
+    /**
+     * Lookups answered from memory.
+     */
+    private final Counter hits;
+
+    /**
+     * Lookups outside of the buffered horizon.
+     */
+    private final Counter misses;
+
+    /**
+     * Creates the store.
+     *
+     * @param properties    consumer properties holding the recent tick settings.
+     * @param meterRegistry registry for the store metrics.
+     */
+    public RecentTickStore(final StockConsumerProperties properties, final MeterRegistry meterRegistry) {
+        this.settings = properties.getRecentTicks();
+        this.hits = Counter.builder("stock.history.recent.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("stock.history.recent.lookups").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("stock.history.recent.symbols", buffers, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Buffers the given ticks.
+     *
+     * @param batch consumed ticks.
+     */
+    public void record(final TickBatch batch) {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            TickRingBuffer buffer = buffers.get(batch.symbol(i));
+            if (buffer == null) {
+                buffer = buffers.computeIfAbsent(batch.symbol(i), symbol -> newBuffer());
+            }
+            synchronized (buffer) {
+                buffer.add(batch.epochMicros(i), batch.scaledPrice(i));
+            }
+        }
+    }
+
+    /**
+     * Looks up the last buffered tick of the symbol at or before the given time.
+     *
+     * @param symbol    the stock symbol.
+     * @param timestamp the requested time.
+     * @return the tick, or an empty {@link Optional} if the time is outside of the buffered horizon.
+     */
+    public Optional<Stock> priceAsOf(final String symbol, final LocalDateTime timestamp) {
+        TickRingBuffer buffer = buffers.get(symbol);
+        if (buffer != null) {
+            synchronized (buffer) {
+                int index = buffer.floor(Ticks.toEpochMicros(timestamp));
+                if (index >= 0) {
+                    hits.increment();
+                    return Optional.of(Stock.builder()
+                            .symbol(symbol)
+                            .price(Ticks.toDouble(buffer.priceAt(index)))
+                            .timestamp(Ticks.toLocalDateTime(buffer.timeAt(index)))
+                            .build());
+                }
+            }
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    private TickRingBuffer newBuffer() {
+        return new TickRingBuffer(settings.getMaxTicksPerSymbol(), settings.getHorizon().toNanos() / 1000);
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.stockconsumer.service.history;
+
+/**
+ * Time-ordered ring buffer of the recent ticks of one symbol.
+ * <p>
+ * Timestamps (epoch microseconds) and scaled prices are kept in parallel primitive arrays, so buffering a tick
+ * allocates nothing. Ticks older than the horizon, measured from the newest tick, are evicted on append;
+ * when the buffer is full the oldest tick is overwritten. Ticks arriving out of order are inserted at their
+ * position, so the buffer always stays sorted and lookups are a binary search. A late tick at or before the
+ * newest evicted tick is dropped: buffering it would make it the floor of lookups the evicted tick answers.
+ * <p>
+ * Instances are not thread-safe; {@link RecentTickStore} synchronizes on them.
+ */
+class TickRingBuffer {
+
+    private final long[] times;
+
+    private final long[] prices;
+
+    private final long horizonMicros;
+
+    /**
+     * Physical index of the oldest tick.
+     */
+    private int head;
+
+    /**
+     * Number of buffered ticks.
+     */
+    private int size;
+
+    /**
+     * Time of the newest evicted tick, {@link Long#MIN_VALUE} if none has been evicted yet.
+     */
+    private long evictedUpTo = Long.MIN_VALUE;
+
+    TickRingBuffer(final int capacity, final long horizonMicros) {
+        this.times = new long[capacity];
+        this.prices = new long[capacity];
+        this.horizonMicros = horizonMicros;
+    }
+
+    /**
+     * Appends a tick, keeping the buffer sorted by time.
+     *
+     * @param epochMicros time of the tick.
+     * @param price       scaled price of the tick.
+     */
+    void add(final long epochMicros, final long price) {
+        if (epochMicros <= evictedUpTo) {
+            return;
+        }
+        if (size > 0 && epochMicros < times[index(size - 1)]) {
+            insert(epochMicros, price);
+        } else {
+            if (size == times.length) {
+                evictHead();
+            }
+            int tail = index(size);
+            times[tail] = epochMicros;
+            prices[tail] = price;
+            size++;
+        }
+        long oldestKept = times[index(size - 1)] - horizonMicros;
+        while (size > 1 && times[head] < oldestKept) {
+            evictHead();
+        }
+    }
+
+    /**
+     * Finds the last tick at or before the given time.
+     *
+     * @param epochMicros the requested time.
+     * @return logical index of the tick, {@code -1} if the time precedes the oldest buffered tick.
+     */
+    int floor(final long epochMicros) {
+        int low = 0;
+        int high = size - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (times[index(mid)] <= epochMicros) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    long timeAt(final int logicalIndex) {
+        return times[index(logicalIndex)];
+    }
+
+    long priceAt(final int logicalIndex) {
+        return prices[index(logicalIndex)];
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void insert(final long epochMicros, final long price) {
+        if (epochMicros < times[head] && size == times.length) {
+            return;
+        }
+        if (size == times.length) {
+            evictHead();
+        }
+        int position = size;
+        while (position > 0 && times[index(position - 1)] > epochMicros) {
+            times[index(position)] = times[index(position - 1)];
+            prices[index(position)] = prices[index(position - 1)];
+            position--;
+        }
+        times[index(position)] = epochMicros;
+        prices[index(position)] = price;
+        size++;
+    }
+
+    private void evictHead() {
+        evictedUpTo = Math.max(evictedUpTo, times[head]);
+        head = index(1);
+        size--;
+    }
+
+    private int index(final int logicalIndex) {
+        int physical = head + logicalIndex;
+        return physical >= times.length ? physical - times.length : physical;
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.stockconsumer.service.retention;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Open/high/low/close aggregate of the ticks of one symbol within one time bucket.
+ * <p>
+ * Ticks have to be added in timestamp order; aggregates of consecutive slices of the same bucket
+ * are combined with {@link #merge(PriceAggregate)}.
+ */
+class PriceAggregate {
+
+    final String symbol;
+
+    final LocalDateTime bucketStart;
+
+    BigDecimal open;
+
+    BigDecimal high;
+
+    BigDecimal low;
+
+    BigDecimal close;
+
+    long count;
+
+    PriceAggregate(final String symbol, final LocalDateTime bucketStart) {
+        this.symbol = symbol;
+        this.bucketStart = bucketStart;
+    }
+
+    /**
+     * Adds the next tick of the bucket.
+     *
+     * @param price price of the tick.
+     */
+    void add(final BigDecimal price) {
+        if (count == 0) {
+            open = price;
+            high = price;
+            low = price;
+        } else {
+            high = high.max(price);
+            low = low.min(price);
+        }
+        close = price;
+        count++;
+    }
+
+    /**
+     * Merges an aggregate of later ticks of the same bucket into this one.
+     *
+     * @param later aggregate of ticks following the ticks of this aggregate.
+     */
+    void merge(final PriceAggregate later) {
+        if (later.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            open = later.open;
+            high = later.high;
+            low = later.low;
+        } else {
+            high = high.max(later.high);
+            low = low.min(later.low);
+        }
+        close = later.close;
+        count += later.count;
+    }
+
+}
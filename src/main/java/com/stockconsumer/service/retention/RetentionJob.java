@@ -0,0 +1,364 @@
+package com.stockconsumer.service.retention;
+
+import com.stockconsumer.config.RetentionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Background job enforcing the retention policies of {@link RetentionProperties}.
+ * <p>
+ * For every policy, rows older than the retention period are removed in bounded batches, each in its own
+ * short transaction, with a pause between batches. Ingestion only inserts current rows, so the job never
+ * competes with it for locks, and no single statement scans or locks a large part of the table.
+ * <p>
+ * When the policy defines a rollup, each batch of expired ticks (oldest first) is folded into per-symbol
+ * open/high/low/close aggregates in the {@code stock_aggregate} table, merged with the aggregate already
+ * stored for the bucket, and deleted in the same transaction. A batch is thus moved atomically, and an
+ * interrupted run simply resumes where it stopped.
+ * <p>
+ * Several instances of the application may run the job at the same time. Every batch transaction first
+ * claims the row of its policy table in {@code retention_lock} with {@code FOR UPDATE SKIP LOCKED}; an
+ * instance that finds it claimed leaves the policy to the other one for this run. Batches of a policy are
+ * thus serialized across instances, so expired ticks are merged into their bucket exactly once and in
+ * timestamp order.
+ * <p>
+ * Unless disabled per policy, the latest row of every symbol is never expired, so that quiet symbols keep
+ * their last price for the stock queries and the change log snapshot. A row is a candidate only when a newer
+ * row of its symbol exists, which is checked against the index on symbol and timestamp.
+ * <p>
+ * The job runs on its own low-priority thread, so that it never delays the scheduled consumer tasks.
+ */
+@Component
+@Slf4j
+public class RetentionJob {
+
+    /**
+     * Allowed shape of configured table and column names, which are embedded into SQL.
+     */
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    /**
+     * Batch result when another instance holds the policy lock.
+     */
+    private static final int LOCKED = -1;
+
+    private final RetentionProperties properties;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Seconds by which the oldest row of each table exceeds its retention period.
+     */
+    private final Map<String, AtomicLong> backlogSeconds = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "retention");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    /**
+     * Creates the job.
+     *
+     * @param properties         retention settings.
+     * @param jdbcTemplate       JDBC access to the retained tables.
+     * @param transactionManager transaction manager of the data source.
+     * @param meterRegistry      registry for the progress metrics.
+     */
+    public RetentionJob(final RetentionProperties properties, final JdbcTemplate jdbcTemplate,
+                        final PlatformTransactionManager transactionManager, final MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Validates the policies and schedules the job.
+     */
+    @PostConstruct
+    public void start() {
+        for (RetentionProperties.Policy policy : properties.getPolicies()) {
+            validate(policy);
+        }
+        if (!properties.isEnabled() || properties.getPolicies().isEmpty()) {
+            log.info("Retention job disabled");
+            return;
+        }
+        executor.scheduleWithFixedDelay(this::run, properties.getInitialDelay().toMillis(),
+                properties.getInterval().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the job, abandoning the current batch if needed.
+     *
+     * @throws InterruptedException if interrupted while waiting for the job to stop.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Applies all policies once.
+     */
+    public void run() {
+        LocalDateTime now = LocalDateTime.now();
+        for (RetentionProperties.Policy policy : properties.getPolicies()) {
+            try {
+                apply(policy, now);
+            } catch (RuntimeException e) {
+                log.error("Retention of table {} failed: {}", policy.getTable(), e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Applies a single policy: rolls up or deletes the expired rows batch by batch.
+     *
+     * @param policy the retention policy.
+     * @param now    reference time of the run.
+     * @return number of removed rows.
+     */
+    long apply(final RetentionProperties.Policy policy, final LocalDateTime now) {
+        LocalDateTime cutoff = now.minus(policy.getRetain());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String action = policy.getRollup() != null ? "rolledup" : "deleted";
+        Counter rows = Counter.builder("stock.retention.rows")
+                .tag("table", policy.getTable()).tag("action", action).register(meterRegistry);
+        Counter batches = Counter.builder("stock.retention.batches")
+                .tag("table", policy.getTable()).register(meterRegistry);
+
+        ensureLockRow(policy);
+        long removed = 0;
+        for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+            Integer count = transactionTemplate.execute(status -> !claim(policy) ? LOCKED
+                    : policy.getRollup() != null ? rollupBatch(policy, cutoff) : deleteBatch(policy, cutoff));
+            if (count != null && count == LOCKED) {
+                log.debug("Retention of table {} is run by another instance", policy.getTable());
+                break;
+            }
+            if (count == null || count == 0) {
+                break;
+            }
+            removed += count;
+            rows.increment(count);
+            batches.increment();
+            if (!pause()) {
+                break;
+            }
+        }
+
+        updateBacklog(policy, cutoff);
+        sample.stop(Timer.builder("stock.retention.run").tag("table", policy.getTable()).register(meterRegistry));
+        if (removed > 0) {
+            log.info("Retention of table {}: {} {} rows older than {}", policy.getTable(), action, removed, cutoff);
+        }
+        return removed;
+    }
+
+    /**
+     * Moves the oldest batch of expired ticks into the aggregates.
+     */
+    private int rollupBatch(final RetentionProperties.Policy policy, final LocalDateTime cutoff) {
+        String ts = policy.getTimestampColumn();
+        List<Object[]> ticks = jdbcTemplate.query(
+                "SELECT t.id, t.symbol, t.price, t." + ts + " FROM " + policy.getTable() + " t"
+                        + " WHERE t." + ts + " < ?" + supersededFilter(policy) + " ORDER BY t." + ts + ", t.id LIMIT ?",
+                (rs, rowNum) -> new Object[]{rs.getLong(1), rs.getString(2), rs.getBigDecimal(3),
+                        rs.getTimestamp(4).toLocalDateTime()},
+                Timestamp.valueOf(cutoff), properties.getBatchSize());
+        if (ticks.isEmpty()) {
+            return 0;
+        }
+
+        long bucketSeconds = policy.getRollup().toSeconds();
+        Map<String, PriceAggregate> aggregates = new LinkedHashMap<>();
+        List<Object[]> ids = new ArrayList<>(ticks.size());
+        for (Object[] tick : ticks) {
+            String symbol = (String) tick[1];
+            LocalDateTime bucketStart = bucketStart((LocalDateTime) tick[3], bucketSeconds);
+            aggregates.computeIfAbsent(symbol + '|' + bucketStart, key -> new PriceAggregate(symbol, bucketStart))
+                    .add((BigDecimal) tick[2]);
+            ids.add(new Object[]{tick[0]});
+        }
+        for (PriceAggregate aggregate : aggregates.values()) {
+            store(aggregate, (int) bucketSeconds);
+        }
+        int deleted = 0;
+        for (int count : jdbcTemplate.batchUpdate("DELETE FROM " + policy.getTable() + " WHERE id = ?", ids)) {
+            deleted += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(0, count);
+        }
+        if (deleted != ticks.size()) {
+            throw new IllegalStateException("Rolled up " + ticks.size() + " rows of " + policy.getTable()
+                    + " but deleted " + deleted);
+        }
+        return ticks.size();
+    }
+
+    /**
+     * Creates the lock row of the policy table, unless it exists.
+     */
+    private void ensureLockRow(final RetentionProperties.Policy policy) {
+        try {
+            jdbcTemplate.update("INSERT INTO retention_lock (policy_table) SELECT ? WHERE NOT EXISTS"
+                    + " (SELECT 1 FROM retention_lock WHERE policy_table = ?)", policy.getTable(), policy.getTable());
+        } catch (DuplicateKeyException e) {
+            log.debug("Lock row of table {} created concurrently", policy.getTable());
+        }
+    }
+
+    /**
+     * Claims the policy table for the current transaction.
+     *
+     * @return {@code false} if another transaction holds the claim.
+     */
+    private boolean claim(final RetentionProperties.Policy policy) {
+        return !jdbcTemplate.queryForList("SELECT policy_table FROM retention_lock WHERE policy_table = ?"
+                + " FOR UPDATE SKIP LOCKED", String.class, policy.getTable()).isEmpty();
+    }
+
+    /**
+     * Merges the aggregate with the one already stored for its bucket.
+     */
+    private void store(final PriceAggregate aggregate, final int bucketSeconds) {
+        Timestamp bucketStart = Timestamp.valueOf(aggregate.bucketStart);
+        List<PriceAggregate> existing = jdbcTemplate.query(
+                "SELECT open_price, high_price, low_price, close_price, tick_count FROM stock_aggregate"
+                        + " WHERE symbol = ? AND bucket_seconds = ? AND bucket_start = ?",
+                (rs, rowNum) -> {
+                    PriceAggregate stored = new PriceAggregate(aggregate.symbol, aggregate.bucketStart);
+                    stored.open = rs.getBigDecimal(1);
+                    stored.high = rs.getBigDecimal(2);
+                    stored.low = rs.getBigDecimal(3);
+                    stored.close = rs.getBigDecimal(4);
+                    stored.count = rs.getLong(5);
+                    return stored;
+                },
+                aggregate.symbol, bucketSeconds, bucketStart);
+        if (existing.isEmpty()) {
+            jdbcTemplate.update("INSERT INTO stock_aggregate (symbol, bucket_seconds, bucket_start, open_price,"
+                            + " high_price, low_price, close_price, tick_count) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                    aggregate.symbol, bucketSeconds, bucketStart, aggregate.open, aggregate.high, aggregate.low,
+                    aggregate.close, aggregate.count);
+        } else {
+            PriceAggregate merged = existing.get(0);
+            merged.merge(aggregate);
+            jdbcTemplate.update("UPDATE stock_aggregate SET open_price = ?, high_price = ?, low_price = ?,"
+                            + " close_price = ?, tick_count = ? WHERE symbol = ? AND bucket_seconds = ?"
+                            + " AND bucket_start = ?",
+                    merged.open, merged.high, merged.low, merged.close, merged.count,
+                    aggregate.symbol, bucketSeconds, bucketStart);
+        }
+    }
+
+    /**
+     * Deletes the oldest batch of expired rows. The batch is bounded by the timestamp of
+     * the {@code batchSize}-th oldest expired row, so no statement touches an unbounded range.
+     */
+    private int deleteBatch(final RetentionProperties.Policy policy, final LocalDateTime cutoff) {
+        String ts = policy.getTimestampColumn();
+        String filter = supersededFilter(policy);
+        List<Timestamp> edge = jdbcTemplate.queryForList(
+                "SELECT t." + ts + " FROM " + policy.getTable() + " t WHERE t." + ts + " < ?" + filter
+                        + " ORDER BY t." + ts + " LIMIT 1 OFFSET ?",
+                Timestamp.class, Timestamp.valueOf(cutoff), properties.getBatchSize() - 1);
+        if (edge.isEmpty()) {
+            return jdbcTemplate.update("DELETE FROM " + policy.getTable() + " t WHERE t." + ts + " < ?" + filter,
+                    Timestamp.valueOf(cutoff));
+        }
+        return jdbcTemplate.update("DELETE FROM " + policy.getTable() + " t WHERE t." + ts + " <= ?" + filter,
+                edge.get(0));
+    }
+
+    private void updateBacklog(final RetentionProperties.Policy policy, final LocalDateTime cutoff) {
+        AtomicLong backlog = backlogSeconds.computeIfAbsent(policy.getTable(), table -> {
+            AtomicLong value = new AtomicLong();
+            Gauge.builder("stock.retention.backlog.seconds", value, AtomicLong::get)
+                    .tag("table", table).register(meterRegistry);
+            return value;
+        });
+        String ts = policy.getTimestampColumn();
+        List<Timestamp> oldest = jdbcTemplate.queryForList("SELECT t." + ts + " FROM " + policy.getTable() + " t"
+                + " WHERE 1 = 1" + supersededFilter(policy) + " ORDER BY t." + ts + " LIMIT 1", Timestamp.class);
+        backlog.set(oldest.isEmpty() ? 0
+                : Math.max(0, Duration.between(oldest.get(0).toLocalDateTime(), cutoff).toSeconds()));
+    }
+
+    /**
+     * Returns the condition restricting the rows of the policy table (alias {@code t}) to those superseded
+     * by a newer row of the same symbol, or an empty string if the policy keeps no latest rows.
+     */
+    private static String supersededFilter(final RetentionProperties.Policy policy) {
+        if (!policy.isKeepLatestPerSymbol()) {
+            return "";
+        }
+        String ts = policy.getTimestampColumn();
+        return " AND EXISTS (SELECT 1 FROM " + policy.getTable() + " l WHERE l.symbol = t.symbol"
+                + " AND l." + ts + " > t." + ts + ")";
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.getPauseBetweenBatches().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static LocalDateTime bucketStart(final LocalDateTime timestamp, final long bucketSeconds) {
+        long epochSecond = timestamp.toEpochSecond(ZoneOffset.UTC);
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochSecond, bucketSeconds) * bucketSeconds, 0,
+                ZoneOffset.UTC);
+    }
+
+    private static void validate(final RetentionProperties.Policy policy) {
+        if (policy.getTable() == null || !IDENTIFIER.matcher(policy.getTable()).matches()
+                || !IDENTIFIER.matcher(policy.getTimestampColumn()).matches()) {
+            throw new IllegalArgumentException("Invalid retention policy table/column: " + policy.getTable()
+                    + "." + policy.getTimestampColumn());
+        }
+        if (policy.getRetain() == null || policy.getRetain().isNegative()) {
+            throw new IllegalArgumentException("Retention policy of " + policy.getTable() + " needs a retain period");
+        }
+        if (policy.getRollup() != null && policy.getRollup().toSeconds() <= 0) {
+            throw new IllegalArgumentException("Rollup of " + policy.getTable() + " must be at least one second");
+        }
+    }
+
+}
@@ -0,0 +1,246 @@
+package com.stockconsumer.service.scaling;
+
+import com.stockconsumer.config.KafkaConsumerConfig;
+import com.stockconsumer.config.KafkaFeedConfig;
+import com.stockconsumer.config.StockConsumerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Adjusts the number of consumer threads of every feed container to its lag.
+ * <p>
+ * At every check the lag of each feed consumer group is measured (see {@link PartitionLagMonitor}) and
+ * compared with the previous measurement to derive the rate at which records arrive and are consumed:
+ * <ul>
+ *     <li>when the lag exceeds the scale-up threshold and cannot be drained within the target drain time
+ *     at the current processing rate, the concurrency grows to the level needed to absorb the incoming rate
+ *     and drain the lag in time, by at least one thread and at most doubling per step, but never beyond the
+ *     number of lagging partitions, i.e. partitions holding at least their share of the scale-up threshold:
+ *     a partition is consumed by a single thread, so a lag piled up on few partitions is not drained faster
+ *     by more threads;</li>
+ *     <li>when the lag stays below the scale-down threshold, the concurrency shrinks by one thread.</li>
+ * </ul>
+ * While nothing is consumed at all, the consumers are stalled (e.g. on a failing database) rather than
+ * saturated, and adding threads would not help, so the concurrency is not raised.
+ * <p>
+ * Decisions are applied only after the configured number of consecutive checks agree, and not within
+ * the cooldown of the previous change. The concurrency stays within the configured bounds and never
+ * exceeds the partition count of the topic, as extra consumers would stay idle.
+ * <p>
+ * A new concurrency takes effect when the container is restarted. The restart is synchronized on the
+ * container, like the restarts of {@link com.stockconsumer.service.adaptive.AdaptivePollTuner}, and the
+ * consumer property overrides applied by the tuner are kept.
+ */
+@Component
+@Slf4j
+public class ConcurrencyScaler {
+
+    /**
+     * Scaling settings.
+     */
+    private final StockConsumerProperties.Scaling settings;
+
+    /**
+     * Feed configuration providing the feeds and their consumer groups.
+     */
+    private final KafkaFeedConfig kafkaFeedConfig;
+
+    /**
+     * Kafka consumer configuration resolving the feed consumer groups.
+     */
+    private final KafkaConsumerConfig kafkaConsumerConfig;
+
+    /**
+     * Registry of the running listener containers.
+     */
+    private final KafkaListenerEndpointRegistry registry;
+
+    /**
+     * Source of the lag measurements.
+     */
+    private final PartitionLagMonitor lagMonitor;
+
+    /**
+     * Registry for the scaling metrics.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Scaling state per listener container id.
+     */
+    private final Map<String, FeedState> states = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the scaler.
+     *
+     * @param properties          consumer properties holding the scaling settings.
+     * @param kafkaFeedConfig     feed configuration.
+     * @param kafkaConsumerConfig Kafka consumer configuration.
+     * @param registry            registry of the listener containers.
+     * @param lagMonitor          source of the lag measurements.
+     * @param meterRegistry       registry for the scaling metrics.
+     */
+    public ConcurrencyScaler(final StockConsumerProperties properties, final KafkaFeedConfig kafkaFeedConfig,
+                             final KafkaConsumerConfig kafkaConsumerConfig,
+                             final KafkaListenerEndpointRegistry registry, final PartitionLagMonitor lagMonitor,
+                             final MeterRegistry meterRegistry) {
+        this.settings = properties.getScaling();
+        this.kafkaFeedConfig = kafkaFeedConfig;
+        this.kafkaConsumerConfig = kafkaConsumerConfig;
+        this.registry = registry;
+        this.lagMonitor = lagMonitor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Periodically measures the lag of every feed and adjusts the concurrency of its container.
+     */
+    @Scheduled(fixedDelayString = "${stock.consumer.scaling.check-interval:15s}",
+            initialDelayString = "${stock.consumer.scaling.check-interval:15s}")
+    public void check() {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        for (StockConsumerProperties.Feed feed : kafkaFeedConfig.feeds()) {
+            MessageListenerContainer container = registry.getListenerContainer(feed.getListenerId());
+            if (!(container instanceof ConcurrentMessageListenerContainer<?, ?> concurrent) || !container.isRunning()) {
+                continue;
+            }
+            FeedLag lag;
+            try {
+                lag = lagMonitor.measure(kafkaConsumerConfig.groupId(feed), feed.getTopic());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("Could not measure the lag of feed {}: {}", feed.getName(), e.getMessage());
+                continue;
+            }
+            int current = concurrent.getConcurrency();
+            int next = decide(feed.getListenerId(), current, lag);
+            if (next != current) {
+                apply(concurrent, current, next);
+            }
+        }
+    }
+
+    /**
+     * Records a lag measurement of a feed and decides on its concurrency.
+     *
+     * @param listenerId id of the feed listener container.
+     * @param current    current concurrency of the container.
+     * @param lag        the lag measurement.
+     * @return the concurrency the container should run with.
+     */
+    int decide(final String listenerId, final int current, final FeedLag lag) {
+        FeedState state = states.computeIfAbsent(listenerId, FeedState::new);
+        FeedLag previous = state.last;
+        state.last = lag;
+        state.lag = lag.lag();
+        state.concurrency = current;
+        if (previous == null || lag.timestampMillis() <= previous.timestampMillis()) {
+            return current;
+        }
+        double seconds = (lag.timestampMillis() - previous.timestampMillis()) / 1000.0;
+        double incomingRate = Math.max(0, lag.endOffsets() - previous.endOffsets()) / seconds;
+        double processingRate = Math.max(0, lag.consumedOffsets() - previous.consumedOffsets()) / seconds;
+        double targetDrainSeconds = settings.getTargetDrainTime().toMillis() / 1000.0;
+        int upper = Math.max(settings.getMinConcurrency(), Math.min(settings.getMaxConcurrency(), lag.partitions()));
+
+        int lagging = lag.partitionsLagging(Math.max(1, settings.getScaleUpLag() / Math.max(1, lag.partitions())));
+
+        boolean behind = lag.lag() >= settings.getScaleUpLag() && processingRate > 0
+                && lag.lag() / processingRate > targetDrainSeconds;
+        if (behind) {
+            state.upVotes++;
+            state.downVotes = 0;
+        } else if (lag.lag() <= settings.getScaleDownLag()) {
+            state.downVotes++;
+            state.upVotes = 0;
+        } else {
+            state.upVotes = 0;
+            state.downVotes = 0;
+        }
+
+        int next = current;
+        if (state.upVotes >= settings.getScaleUpChecks() && current < Math.min(upper, lagging)) {
+            double requiredRate = incomingRate + lag.lag() / targetDrainSeconds;
+            int needed = (int) Math.ceil(current * requiredRate / processingRate);
+            next = Math.min(Math.min(upper, lagging), Math.min(2 * current, Math.max(current + 1, needed)));
+        } else if (state.downVotes >= settings.getScaleDownChecks() && current > settings.getMinConcurrency()) {
+            next = current - 1;
+        } else if (current > upper) {
+            next = upper;
+        }
+        if (next == current) {
+            return current;
+        }
+        if (lag.timestampMillis() - state.lastChange < settings.getCooldown().toMillis()) {
+            return current;
+        }
+        log.info("Scaling {} from {} to {} consumers (lag {}, incoming {}/s, processed {}/s)", listenerId, current,
+                next, lag.lag(), Math.round(incomingRate), Math.round(processingRate));
+        (next > current ? state.ups : state.downs).increment();
+        state.lastChange = lag.timestampMillis();
+        state.upVotes = 0;
+        state.downVotes = 0;
+        state.concurrency = next;
+        return next;
+    }
+
+    private void apply(final ConcurrentMessageListenerContainer<?, ?> container, final int current, final int next) {
+        synchronized (container) {
+            container.setConcurrency(next);
+            if (container.isRunning()) {
+                log.info("Restarting listener container {} with {} consumers (was {})", container.getListenerId(),
+                        next, current);
+                container.stop();
+                container.start();
+            }
+        }
+    }
+
+    /**
+     * Measurements, votes and meters of a single feed.
+     */
+    private final class FeedState {
+
+        private final Counter ups;
+
+        private final Counter downs;
+
+        private volatile long lag;
+
+        private volatile int concurrency;
+
+        private FeedLag last;
+
+        private int upVotes;
+
+        private int downVotes;
+
+        private long lastChange = Long.MIN_VALUE / 2;
+
+        FeedState(final String listenerId) {
+            this.ups = Counter.builder("stock.consumer.concurrency.changes")
+                    .tag("listener", listenerId).tag("direction", "up").register(meterRegistry);
+            this.downs = Counter.builder("stock.consumer.concurrency.changes")
+                    .tag("listener", listenerId).tag("direction", "down").register(meterRegistry);
+            Gauge.builder("stock.consumer.lag", this, s -> s.lag)
+                    .tag("listener", listenerId).register(meterRegistry);
+            Gauge.builder("stock.consumer.concurrency", this, s -> s.concurrency)
+                    .tag("listener", listenerId).register(meterRegistry);
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.stockconsumer.service.scaling;
+
+/**
+ * Lag of a feed consumer group at one point in time.
+ *
+ * @param partitionLags   records produced but not yet consumed, per partition of the feed topic.
+ * @param endOffsets      sum of the log end offsets of all partitions.
+ * @param consumedOffsets sum of the committed offsets of the group (the log start offset where none is committed).
+ * @param timestampMillis time of the measurement.
+ */
+public record FeedLag(long[] partitionLags, long endOffsets, long consumedOffsets, long timestampMillis) {
+
+    /**
+     * Returns the number of partitions of the feed topic.
+     *
+     * @return the partition count.
+     */
+    public int partitions() {
+        return partitionLags.length;
+    }
+
+    /**
+     * Returns the number of records produced but not yet consumed.
+     *
+     * @return the total lag over all partitions.
+     */
+    public long lag() {
+        long lag = 0;
+        for (long partitionLag : partitionLags) {
+            lag += partitionLag;
+        }
+        return lag;
+    }
+
+    /**
+     * Returns the number of partitions lagging by at least the given number of records.
+     *
+     * @param threshold lag of a partition, in records.
+     * @return the number of lagging partitions.
+     */
+    public int partitionsLagging(final long threshold) {
+        int partitions = 0;
+        for (long partitionLag : partitionLags) {
+            if (partitionLag >= threshold) {
+                partitions++;
+            }
+        }
+        return partitions;
+    }
+}
@@ -0,0 +1,116 @@
+package com.stockconsumer.service.scaling;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Measures the per-partition lag of a consumer group with the Kafka admin client.
+ * <p>
+ * The lag is the difference between the log end offset and the committed offset of every partition of the
+ * topic, so it is measured by the broker and remains available while the listener container restarts.
+ * Partitions without a committed offset count from their log start offset, matching the
+ * {@code earliest} offset reset of the consumers.
+ */
+@Component
+@RequiredArgsConstructor
+public class PartitionLagMonitor {
+
+    /**
+     * Timeout of a single admin request.
+     */
+    private static final long REQUEST_TIMEOUT_SECONDS = 10;
+
+    /**
+     * Spring Kafka admin holding the client configuration.
+     */
+    private final KafkaAdmin kafkaAdmin;
+
+    /**
+     * Admin client, created on first use.
+     */
+    private Admin admin;
+
+    /**
+     * Measures the lag of the consumer group on the topic.
+     *
+     * @param groupId consumer group of the feed.
+     * @param topic   topic of the feed.
+     * @return the current lag.
+     * @throws ExecutionException   if a request fails.
+     * @throws InterruptedException if interrupted while waiting for the broker.
+     * @throws TimeoutException     if the broker does not answer in time.
+     */
+    public FeedLag measure(final String groupId, final String topic)
+            throws ExecutionException, InterruptedException, TimeoutException {
+        Admin client = admin();
+        TopicDescription description = client.describeTopics(List.of(topic)).allTopicNames()
+                .get(REQUEST_TIMEOUT_SECONDS, TimeUnit.SECONDS).get(topic);
+        Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+        description.partitions().forEach(partition ->
+                latest.put(new TopicPartition(topic, partition.partition()), OffsetSpec.latest()));
+        Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> endOffsets = client.listOffsets(latest).all()
+                .get(REQUEST_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        Map<TopicPartition, OffsetAndMetadata> committed = client.listConsumerGroupOffsets(groupId)
+                .partitionsToOffsetAndMetadata().get(REQUEST_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        List<TopicPartition> partitions = List.copyOf(latest.keySet());
+        long[] lags = new long[partitions.size()];
+        long[] consumedOffsets = new long[partitions.size()];
+        Map<TopicPartition, OffsetSpec> uncommitted = new HashMap<>();
+        for (TopicPartition partition : partitions) {
+            OffsetAndMetadata offset = committed.get(partition);
+            if (offset == null) {
+                uncommitted.put(partition, OffsetSpec.earliest());
+            } else {
+                consumedOffsets[partitions.indexOf(partition)] = offset.offset();
+            }
+        }
+        if (!uncommitted.isEmpty()) {
+            client.listOffsets(uncommitted).all().get(REQUEST_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                    .forEach((partition, start) -> consumedOffsets[partitions.indexOf(partition)] = start.offset());
+        }
+        long end = 0;
+        long consumed = 0;
+        for (int i = 0; i < lags.length; i++) {
+            long endOffset = endOffsets.get(partitions.get(i)).offset();
+            lags[i] = Math.max(0, endOffset - consumedOffsets[i]);
+            end += endOffset;
+            consumed += consumedOffsets[i];
+        }
+        return new FeedLag(lags, end, consumed, System.currentTimeMillis());
+    }
+
+    /**
+     * Closes the admin client.
+     */
+    @PreDestroy
+    public synchronized void close() {
+        if (admin != null) {
+            admin.close();
+            admin = null;
+        }
+    }
+
+    private synchronized Admin admin() {
+        if (admin == null) {
+            admin = Admin.create(kafkaAdmin.getConfigurationProperties());
+        }
+        return admin;
+    }
+
+}
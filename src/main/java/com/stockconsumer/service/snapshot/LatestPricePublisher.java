@@ -0,0 +1,313 @@
+package com.stockconsumer.service.snapshot;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.stockconsumer.config.SnapshotProperties;
+import com.stockconsumer.service.tick.SymbolDictionary;
+import com.stockconsumer.service.tick.TickBatch;
+import com.stockconsumer.service.tick.Ticks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.errors.TopicExistsException;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes the latest price of every symbol to a log-compacted Kafka topic keyed by symbol.
+ * <p>
+ * The ingest path only records the ticks of each batch into per-symbol slots indexed by the symbol id,
+ * overwriting the previous price and remembering which symbols changed. A dedicated publisher thread
+ * wakes up once per interval, takes the changed symbols and sends one record per symbol with its latest
+ * price. Intermediate prices are conflated, a symbol is published at most once per interval, and the
+ * producer (batching and compression, see {@link com.stockconsumer.config.KafkaProducerConfig}) never runs
+ * on a consumer thread. A symbol whose record fails to be sent is published again on the next interval.
+ * <p>
+ * Downstream services bootstrap the full price snapshot by reading the compacted topic from the beginning.
+ * Values have the JSON shape of the consumed stock updates. The topic is created when it does not exist, but
+ * an existing topic is never modified: adding partitions would move symbols to other partitions, leaving
+ * their stale records behind in the old ones.
+ * <p>
+ * Like the alert rule index, the publisher starts with the application context, ahead of the listener
+ * containers, and stops after them, publishing the remaining changes.
+ */
+@Component
+@Slf4j
+public class LatestPricePublisher implements SmartLifecycle {
+
+    /**
+     * Lifecycle phase of the publisher, ahead of the Kafka listener containers.
+     */
+    private static final int PHASE = AbstractMessageListenerContainer.DEFAULT_PHASE - 100;
+
+    /**
+     * Timeout of the topic creation request.
+     */
+    private static final long REQUEST_TIMEOUT_SECONDS = 10;
+
+    private final SnapshotProperties properties;
+
+    private final SymbolDictionary dictionary;
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    private final KafkaAdmin kafkaAdmin;
+
+    private final Counter published;
+
+    private final Counter failed;
+
+    private final Timer flushTimer;
+
+    /**
+     * Latest scaled price per symbol id; guarded by {@code this}.
+     */
+    private long[] prices = new long[0];
+
+    /**
+     * Time (epoch micros) of the latest price per symbol id; guarded by {@code this}.
+     */
+    private long[] times = new long[0];
+
+    /**
+     * Whether the symbol changed since its last publication; guarded by {@code this}.
+     */
+    private boolean[] dirty = new boolean[0];
+
+    /**
+     * Ids of the changed symbols, in order of change; guarded by {@code this}.
+     */
+    private int[] dirtyIds = new int[0];
+
+    private int dirtyCount;
+
+    private ScheduledExecutorService executor;
+
+    private volatile boolean running;
+
+    private boolean topicChecked;
+
+    /**
+     * Creates the publisher.
+     *
+     * @param properties    snapshot publication settings.
+     * @param dictionary    dictionary of the symbol ids.
+     * @param kafkaTemplate template of the snapshot producer.
+     * @param kafkaAdmin    admin creating the compacted topic.
+     * @param meterRegistry registry for the publisher metrics.
+     */
+    public LatestPricePublisher(final SnapshotProperties properties, final SymbolDictionary dictionary,
+                                final KafkaTemplate<String, byte[]> kafkaTemplate, final KafkaAdmin kafkaAdmin,
+                                final MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.dictionary = dictionary;
+        this.kafkaTemplate = kafkaTemplate;
+        this.kafkaAdmin = kafkaAdmin;
+        this.published = Counter.builder("stock.snapshot.published").register(meterRegistry);
+        this.failed = Counter.builder("stock.snapshot.failed").register(meterRegistry);
+        this.flushTimer = Timer.builder("stock.snapshot.flush").register(meterRegistry);
+        Gauge.builder("stock.snapshot.pending", this, LatestPricePublisher::pending).register(meterRegistry);
+    }
+
+    /**
+     * Records the ticks of a consumed batch as the latest prices of their symbols. Never blocks on Kafka.
+     * Ticks older than the latest recorded price of their symbol are ignored.
+     *
+     * @param batch the consumed ticks.
+     */
+    public void record(final TickBatch batch) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        synchronized (this) {
+            for (int i = 0; i < batch.size(); i++) {
+                int id = batch.symbolId(i);
+                if (id >= prices.length) {
+                    grow(id + 1);
+                }
+                if (batch.epochMicros(i) < times[id]) {
+                    continue;
+                }
+                prices[id] = batch.scaledPrice(i);
+                times[id] = batch.epochMicros(i);
+                markDirty(id);
+            }
+        }
+    }
+
+    /**
+     * Publishes the latest price of every symbol changed since the previous flush.
+     *
+     * @return the number of published symbols.
+     */
+    public int flush() {
+        int count;
+        int[] ids;
+        long[] latestPrices;
+        long[] latestTimes;
+        synchronized (this) {
+            count = dirtyCount;
+            if (count == 0) {
+                return 0;
+            }
+            ids = Arrays.copyOf(dirtyIds, count);
+            latestPrices = new long[count];
+            latestTimes = new long[count];
+            for (int i = 0; i < count; i++) {
+                latestPrices[i] = prices[ids[i]];
+                latestTimes[i] = times[ids[i]];
+                dirty[ids[i]] = false;
+            }
+            dirtyCount = 0;
+        }
+        long start = System.nanoTime();
+        StringBuilder json = new StringBuilder(96);
+        for (int i = 0; i < count; i++) {
+            int id = ids[i];
+            String symbol = dictionary.symbol(id);
+            json.setLength(0);
+            json.append("{\"symbol\":\"").append(JsonStringEncoder.getInstance().quoteAsString(symbol))
+                    .append("\",\"price\":").append(Ticks.toBigDecimal(latestPrices[i]).toPlainString())
+                    .append(",\"timestamp\":\"").append(Ticks.toLocalDateTime(latestTimes[i])).append("\"}");
+            kafkaTemplate.send(properties.getTopic(), symbol, json.toString().getBytes(StandardCharsets.UTF_8))
+                    .whenComplete((result, exception) -> {
+                        if (exception == null) {
+                            published.increment();
+                        } else {
+                            failed.increment();
+                            retry(id);
+                        }
+                    });
+        }
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return count;
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getInterval().toMillis();
+        executor.scheduleAtFixedRate(this::publish, interval, interval, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                publish();
+                kafkaTemplate.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running = false;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void publish() {
+        try {
+            if (!topicChecked && properties.isCreateTopic()) {
+                createTopicIfMissing();
+                topicChecked = true;
+            }
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish latest prices to {}: {}", properties.getTopic(), e.getMessage());
+        }
+    }
+
+    /**
+     * Creates the snapshot topic unless it already exists, whatever its partitions or configuration.
+     */
+    private void createTopicIfMissing() {
+        try (Admin admin = Admin.create(kafkaAdmin.getConfigurationProperties())) {
+            admin.createTopics(List.of(topic())).all().get(REQUEST_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            log.info("Created snapshot topic {}", properties.getTopic());
+        } catch (ExecutionException e) {
+            if (!(e.getCause() instanceof TopicExistsException)) {
+                throw new KafkaException("Could not create topic " + properties.getTopic(), e.getCause());
+            }
+        } catch (TimeoutException e) {
+            throw new KafkaException("Timed out creating topic " + properties.getTopic(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KafkaException("Interrupted while creating topic " + properties.getTopic(), e);
+        }
+    }
+
+    /**
+     * Declares the compacted snapshot topic.
+     *
+     * @return the topic definition.
+     */
+    NewTopic topic() {
+        return TopicBuilder.name(properties.getTopic())
+                .partitions(properties.getPartitions())
+                .replicas(properties.getReplicationFactor())
+                .compact()
+                .build();
+    }
+
+    private synchronized void retry(final int id) {
+        markDirty(id);
+    }
+
+    private void markDirty(final int id) {
+        if (!dirty[id]) {
+            dirty[id] = true;
+            dirtyIds[dirtyCount++] = id;
+        }
+    }
+
+    private void grow(final int minCapacity) {
+        int capacity = Math.max(minCapacity, Math.max(64, prices.length * 2));
+        prices = Arrays.copyOf(prices, capacity);
+        times = Arrays.copyOf(times, capacity);
+        dirty = Arrays.copyOf(dirty, capacity);
+        dirtyIds = Arrays.copyOf(dirtyIds, capacity);
+    }
+
+    private synchronized int pending() {
+        return dirtyCount;
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.stockconsumer.service.startup;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the time from JVM start to the first consumed record.
+ * <p>
+ * This is the startup cost an autoscaled pod pays before it starts reducing lag.
+ * The value is logged once and published as the {@code stock.startup.first.record} gauge (milliseconds);
+ * the startup benchmark reads it from the log.
+ */
+@Component
+@Slf4j
+public class FirstRecordProbe {
+
+    /**
+     * Prefix of the log message reporting the measured time.
+     */
+    public static final String LOG_MESSAGE = "First record consumed";
+
+    /**
+     * Milliseconds from JVM start to the first consumed record, {@code -1} until then.
+     */
+    private final AtomicLong firstRecordMillis = new AtomicLong(-1);
+
+    /**
+     * Creates the probe.
+     *
+     * @param meterRegistry registry for the startup metric.
+     */
+    public FirstRecordProbe(final MeterRegistry meterRegistry) {
+        Gauge.builder("stock.startup.first.record", firstRecordMillis, AtomicLong::get)
+                .baseUnit("milliseconds").register(meterRegistry);
+    }
+
+    /**
+     * Notes that records were consumed. Only the first call has an effect.
+     */
+    public void recordConsumed() {
+        if (firstRecordMillis.get() < 0) {
+            long elapsed = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+            if (firstRecordMillis.compareAndSet(-1, elapsed)) {
+                log.info(LOG_MESSAGE + " {} ms after JVM start", elapsed);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,236 @@
+package com.stockconsumer.service.tick;
+
+import com.stockconsumer.config.StockConsumerProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Dictionary encoding stock symbols as dense integer ids.
+ * <p>
+ * Ids are assigned on first sight, starting at {@code 0}, and never change or get reused, so they can index
+ * plain arrays. Symbols are looked up directly from the characters of the consumed message, so a known
+ * symbol costs neither a {@link String} allocation nor a map entry.
+ * <p>
+ * Since ids are never reclaimed, the number of symbols is capped by {@code stock.consumer.max-symbols}; once
+ * the dictionary is full, new symbols get {@link #NO_ID} and their ticks are skipped.
+ * <p>
+ * The dictionary is an immutable open-addressing table published through a volatile field; lookups are
+ * lock free, and the rare insertion of a new symbol copies the table under a lock.
+ */
+@Component
+public class SymbolDictionary {
+
+    /**
+     * Id returned for unknown symbols, and for new symbols once the dictionary is full.
+     */
+    public static final int NO_ID = -1;
+
+    /**
+     * Marker of an empty slot of the hash table.
+     */
+    private static final int EMPTY = -1;
+
+    /**
+     * Maximum number of symbols.
+     */
+    private final int maxSymbols;
+
+    /**
+     * Current table; replaced as a whole on every insertion.
+     */
+    private volatile Table table = new Table(new String[0], emptySlots(16));
+
+    /**
+     * Creates an unbounded dictionary.
+     */
+    public SymbolDictionary() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a dictionary holding at most the configured number of symbols.
+     *
+     * @param properties consumer settings providing the maximum number of symbols.
+     */
+    @Autowired
+    public SymbolDictionary(final StockConsumerProperties properties) {
+        this(properties.getMaxSymbols());
+    }
+
+    /**
+     * Creates a dictionary holding at most the given number of symbols.
+     *
+     * @param maxSymbols maximum number of symbols.
+     */
+    public SymbolDictionary(final int maxSymbols) {
+        this.maxSymbols = maxSymbols;
+    }
+
+    /**
+     * Returns the id of the symbol, assigning a new id on first sight.
+     *
+     * @param symbol the stock symbol.
+     * @return the symbol id, or {@link #NO_ID} if the symbol is new and the dictionary is full.
+     */
+    public int idOf(final String symbol) {
+        int id = find(table, symbol, 0, symbol.length(), symbol.hashCode());
+        return id != EMPTY ? id : insert(symbol, symbol.hashCode());
+    }
+
+    /**
+     * Returns the id of the symbol held by a range of characters, assigning a new id on first sight.
+     *
+     * @param chars  buffer holding the symbol.
+     * @param offset offset of the symbol in the buffer.
+     * @param length length of the symbol.
+     * @return the symbol id, or {@link #NO_ID} if the symbol is new and the dictionary is full.
+     */
+    public int idOf(final char[] chars, final int offset, final int length) {
+        int hash = hash(chars, offset, length);
+        int id = find(table, chars, offset, length, hash);
+        return id != EMPTY ? id : insert(new String(chars, offset, length), hash);
+    }
+
+    /**
+     * Returns the id of a known symbol held by a range of characters, without assigning new ids.
+     *
+     * @param chars  buffer holding the symbol.
+     * @param offset offset of the symbol in the buffer.
+     * @param length length of the symbol.
+     * @return the symbol id, or {@link #NO_ID} if the symbol is unknown.
+     */
+    public int find(final char[] chars, final int offset, final int length) {
+        return find(table, chars, offset, length, hash(chars, offset, length));
+    }
+
+    /**
+     * Returns the symbol of an id.
+     *
+     * @param id a symbol id returned by this dictionary.
+     * @return the symbol.
+     */
+    public String symbol(final int id) {
+        return table.symbols[id];
+    }
+
+    /**
+     * Returns the number of known symbols, i.e. the upper bound (exclusive) of the assigned ids.
+     *
+     * @return the number of symbols.
+     */
+    public int size() {
+        return table.symbols.length;
+    }
+
+    private synchronized int insert(final String symbol, final int hash) {
+        Table current = table;
+        int id = find(current, symbol, 0, symbol.length(), hash);
+        if (id != EMPTY) {
+            return id;
+        }
+        id = current.symbols.length;
+        if (id >= maxSymbols) {
+            return NO_ID;
+        }
+        String[] symbols = Arrays.copyOf(current.symbols, id + 1);
+        symbols[id] = symbol;
+        int[] slots;
+        if (symbols.length * 2 > current.slots.length) {
+            slots = emptySlots(current.slots.length * 2);
+            for (int i = 0; i < symbols.length; i++) {
+                place(slots, symbols[i].hashCode(), i);
+            }
+        } else {
+            slots = current.slots.clone();
+            place(slots, hash, id);
+        }
+        table = new Table(symbols, slots);
+        return id;
+    }
+
+    private static int find(final Table table, final CharSequence symbol, final int offset, final int length,
+                            final int hash) {
+        int mask = table.slots.length - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            int id = table.slots[slot];
+            if (id == EMPTY) {
+                return EMPTY;
+            }
+            String candidate = table.symbols[id];
+            if (candidate.length() == length && regionEquals(candidate, symbol, offset, length)) {
+                return id;
+            }
+        }
+    }
+
+    private static int find(final Table table, final char[] chars, final int offset, final int length,
+                            final int hash) {
+        int mask = table.slots.length - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            int id = table.slots[slot];
+            if (id == EMPTY) {
+                return EMPTY;
+            }
+            String candidate = table.symbols[id];
+            if (candidate.length() == length && regionEquals(candidate, chars, offset, length)) {
+                return id;
+            }
+        }
+    }
+
+    private static boolean regionEquals(final String candidate, final CharSequence symbol, final int offset,
+                                        final int length) {
+        for (int i = 0; i < length; i++) {
+            if (candidate.charAt(i) != symbol.charAt(offset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean regionEquals(final String candidate, final char[] chars, final int offset,
+                                        final int length) {
+        for (int i = 0; i < length; i++) {
+            if (candidate.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(final char[] chars, final int offset, final int length) {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        return hash;
+    }
+
+    private static void place(final int[] slots, final int hash, final int id) {
+        int mask = slots.length - 1;
+        int slot = spread(hash) & mask;
+        while (slots[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = id;
+    }
+
+    private static int spread(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int[] emptySlots(final int capacity) {
+        int[] slots = new int[capacity];
+        Arrays.fill(slots, EMPTY);
+        return slots;
+    }
+
+    /**
+     * Immutable snapshot of the dictionary: symbols by id and the open-addressing slots holding the ids.
+     */
+    private record Table(String[] symbols, int[] slots) {
+    }
+
+}
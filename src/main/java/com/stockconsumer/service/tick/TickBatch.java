@@ -0,0 +1,158 @@
+package com.stockconsumer.service.tick;
+
+import com.stockconsumer.model.entity.Stock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact, reusable batch of price ticks flowing through the ingest pipeline.
+ * <p>
+ * Ticks are stored column-wise in primitive arrays: the dictionary-encoded symbol id, the scaled price
+ * (see {@link Ticks}), the tick time in epoch microseconds and the Kafka timestamp of the record.
+ * A batch is owned by a single consumer thread and is cleared and refilled on every poll, so steady-state
+ * ingestion does not allocate per tick. Stages of the pipeline must copy what they keep beyond the call.
+ */
+public class TickBatch {
+
+    /**
+     * Initial capacity of a batch; the arrays grow as needed and are then kept.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Dictionary the symbol ids refer to.
+     */
+    private final SymbolDictionary dictionary;
+
+    private int[] symbolIds = new int[INITIAL_CAPACITY];
+
+    private long[] prices = new long[INITIAL_CAPACITY];
+
+    private long[] times = new long[INITIAL_CAPACITY];
+
+    private long[] kafkaTimestamps = new long[INITIAL_CAPACITY];
+
+    private int size;
+
+    /**
+     * Creates an empty batch.
+     *
+     * @param dictionary dictionary the symbol ids refer to.
+     */
+    public TickBatch(final SymbolDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Appends a tick.
+     *
+     * @param symbolId       dictionary id of the symbol.
+     * @param scaledPrice    scaled price.
+     * @param epochMicros    tick time in epoch microseconds.
+     * @param kafkaTimestamp timestamp of the Kafka record, in epoch milliseconds.
+     */
+    public void add(final int symbolId, final long scaledPrice, final long epochMicros, final long kafkaTimestamp) {
+        if (size == symbolIds.length) {
+            int capacity = size * 2;
+            symbolIds = Arrays.copyOf(symbolIds, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            times = Arrays.copyOf(times, capacity);
+            kafkaTimestamps = Arrays.copyOf(kafkaTimestamps, capacity);
+        }
+        symbolIds[size] = symbolId;
+        prices[size] = scaledPrice;
+        times[size] = epochMicros;
+        kafkaTimestamps[size] = kafkaTimestamp;
+        size++;
+    }
+
+    /**
+     * Appends a tick converted from a {@link Stock} entity. Entities without symbol, price or timestamp, and
+     * entities of a new symbol once the {@link SymbolDictionary} is full, are ignored.
+     *
+     * @param stock          the stock update.
+     * @param kafkaTimestamp timestamp of the Kafka record, in epoch milliseconds.
+     */
+    public void add(final Stock stock, final long kafkaTimestamp) {
+        if (stock.getSymbol() != null && stock.getPrice() != null && stock.getTimestamp() != null) {
+            int symbolId = dictionary.idOf(stock.getSymbol());
+            if (symbolId != SymbolDictionary.NO_ID) {
+                add(symbolId, Ticks.toScaledPrice(stock.getPrice()), Ticks.toEpochMicros(stock.getTimestamp()),
+                        kafkaTimestamp);
+            }
+        }
+    }
+
+    /**
+     * Removes all ticks, keeping the allocated capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Removes the ticks from the given index on, keeping the allocated capacity.
+     *
+     * @param newSize number of ticks to keep.
+     */
+    public void truncate(final int newSize) {
+        if (newSize < 0 || newSize > size) {
+            throw new IndexOutOfBoundsException("Cannot truncate " + size + " ticks to " + newSize);
+        }
+        size = newSize;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int symbolId(final int index) {
+        return symbolIds[index];
+    }
+
+    /**
+     * Returns the symbol of a tick.
+     *
+     * @param index index of the tick.
+     * @return the canonical symbol string held by the dictionary.
+     */
+    public String symbol(final int index) {
+        return dictionary.symbol(symbolIds[index]);
+    }
+
+    public long scaledPrice(final int index) {
+        return prices[index];
+    }
+
+    public long epochMicros(final int index) {
+        return times[index];
+    }
+
+    public long kafkaTimestamp(final int index) {
+        return kafkaTimestamps[index];
+    }
+
+    /**
+     * Converts the ticks to {@link Stock} entities, e.g. for logging or for callers working with entities.
+     *
+     * @return new, unsaved entities.
+     */
+    public List<Stock> toStocks() {
+        List<Stock> stocks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            stocks.add(Stock.builder()
+                    .symbol(symbol(i))
+                    .price(Ticks.toDouble(prices[i]))
+                    .timestamp(Ticks.toLocalDateTime(times[i]))
+                    .build());
+        }
+        return stocks;
+    }
+
+}
@@ -0,0 +1,276 @@
+package com.stockconsumer.service.tick;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.Year;
+
+/**
+ * Decodes JSON stock updates straight into a {@link TickBatch}.
+ * <p>
+ * Messages are read with the Jackson streaming parser and the {@code symbol}, {@code price} and
+ * {@code timestamp} fields are decoded from the parser character buffer: the symbol is resolved through the
+ * {@link SymbolDictionary}, the price is scaled from its decimal text (so {@code 0.145} becomes {@code 15}
+ * like in the database, not {@code 14} like {@code Math.round(0.145 * 100)}), and ISO-8601 timestamps are
+ * converted to epoch microseconds without intermediate objects. Timestamps serialized as arrays and prices
+ * in exponent notation take a slower path. Other fields are skipped.
+ * <p>
+ * Ticks that would violate the constraints of the {@code stock} table, i.e. symbols longer than
+ * {@link Ticks#MAX_SYMBOL_LENGTH} or prices not fitting {@code NUMERIC(10, 2)}, are rejected like malformed
+ * messages, so that a single bad record cannot fail the insert of a whole batch. A new symbol is only added to
+ * the dictionary once its message has been fully validated, so malformed messages cannot fill it; ticks of new
+ * symbols are skipped once the dictionary is full.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TickDecoder {
+
+    /**
+     * Shared, thread-safe factory of streaming parsers.
+     */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+
+    /**
+     * Number of digits beyond which a price is decoded through {@link BigDecimal} to avoid overflow.
+     */
+    private static final int MAX_FAST_PRICE_DIGITS = 17;
+
+    /**
+     * Dictionary encoding the symbols.
+     */
+    private final SymbolDictionary dictionary;
+
+    /**
+     * Decodes a message and appends it to the batch.
+     *
+     * @param json           the serialized stock update.
+     * @param kafkaTimestamp timestamp of the Kafka record, in epoch milliseconds.
+     * @param batch          batch receiving the tick.
+     * @return {@code false} if the message is not a complete, storable stock update and was not appended.
+     */
+    public boolean decode(final byte[] json, final long kafkaTimestamp, final TickBatch batch) {
+        if (json == null) {
+            return false;
+        }
+        int symbolId = SymbolDictionary.NO_ID;
+        String newSymbol = null;
+        long price = 0;
+        long time = Long.MIN_VALUE;
+        boolean hasPrice = false;
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                switch (field) {
+                    case "symbol" -> {
+                        if (value == JsonToken.VALUE_STRING && parser.getTextLength() <= Ticks.MAX_SYMBOL_LENGTH) {
+                            symbolId = dictionary.find(parser.getTextCharacters(), parser.getTextOffset(),
+                                    parser.getTextLength());
+                            newSymbol = symbolId == SymbolDictionary.NO_ID ? parser.getText() : null;
+                        }
+                    }
+                    case "price" -> {
+                        if (value.isNumeric() || value == JsonToken.VALUE_STRING) {
+                            price = scaledPrice(parser.getTextCharacters(), parser.getTextOffset(),
+                                    parser.getTextLength());
+                            hasPrice = true;
+                        }
+                    }
+                    case "timestamp" -> time = epochMicros(parser, value);
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+        if ((symbolId == SymbolDictionary.NO_ID && newSymbol == null) || !hasPrice || time == Long.MIN_VALUE
+                || price > Ticks.MAX_SCALED_PRICE || price < -Ticks.MAX_SCALED_PRICE) {
+            return false;
+        }
+        if (symbolId == SymbolDictionary.NO_ID) {
+            symbolId = dictionary.idOf(newSymbol);
+            if (symbolId == SymbolDictionary.NO_ID) {
+                log.warn("Skipping tick of new symbol {}: the symbol dictionary is full", newSymbol);
+                return false;
+            }
+        }
+        batch.add(symbolId, price, time, kafkaTimestamp);
+        return true;
+    }
+
+    /**
+     * Scales a decimal price, rounding half up to {@link Ticks#PRICE_SCALE} digits.
+     *
+     * @param chars  buffer holding the decimal text.
+     * @param offset offset of the text.
+     * @param length length of the text.
+     * @return the scaled price.
+     */
+    static long scaledPrice(final char[] chars, final int offset, final int length) {
+        int end = offset + length;
+        int i = offset;
+        boolean negative = false;
+        if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i] == '-';
+            i++;
+        }
+        long value = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        boolean roundUp = false;
+        for (; i < end; i++) {
+            char c = chars[i];
+            if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else if (c >= '0' && c <= '9') {
+                if (fractionDigits < 0 || fractionDigits < Ticks.PRICE_SCALE) {
+                    value = value * 10 + (c - '0');
+                    digits++;
+                    if (fractionDigits >= 0) {
+                        fractionDigits++;
+                    }
+                } else if (fractionDigits == Ticks.PRICE_SCALE) {
+                    roundUp = c >= '5';
+                    fractionDigits++;
+                }
+            } else {
+                return Ticks.toScaledPrice(new BigDecimal(chars, offset, length));
+            }
+            if (digits > MAX_FAST_PRICE_DIGITS) {
+                return Ticks.toScaledPrice(new BigDecimal(chars, offset, length));
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Not a price: " + new String(chars, offset, length));
+        }
+        for (int scale = Math.max(0, fractionDigits); scale < Ticks.PRICE_SCALE; scale++) {
+            value *= 10;
+        }
+        if (roundUp) {
+            value++;
+        }
+        return negative ? -value : value;
+    }
+
+    private static long epochMicros(final JsonParser parser, final JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_STRING) {
+            long micros = parseIsoLocalDateTime(parser.getTextCharacters(), parser.getTextOffset(),
+                    parser.getTextLength());
+            return micros != Long.MIN_VALUE ? micros : Ticks.toEpochMicros(LocalDateTime.parse(parser.getText()));
+        }
+        if (value == JsonToken.START_ARRAY) {
+            int[] fields = new int[7];
+            int count = 0;
+            while (parser.nextToken() == JsonToken.VALUE_NUMBER_INT) {
+                if (count < fields.length) {
+                    fields[count++] = parser.getIntValue();
+                }
+            }
+            return Ticks.toEpochMicros(LocalDateTime.of(fields[0], fields[1], fields[2], fields[3], fields[4],
+                    fields[5], fields[6]));
+        }
+        parser.skipChildren();
+        return Long.MIN_VALUE;
+    }
+
+    /**
+     * Parses {@code yyyy-MM-ddTHH:mm[:ss[.fffffffff]]} into epoch microseconds (UTC).
+     *
+     * @return the epoch microseconds, or {@link Long#MIN_VALUE} if the text is in another format.
+     */
+    static long parseIsoLocalDateTime(final char[] chars, final int offset, final int length) {
+        if (length < 16 || chars[offset + 4] != '-' || chars[offset + 7] != '-' || chars[offset + 10] != 'T'
+                || chars[offset + 13] != ':') {
+            return Long.MIN_VALUE;
+        }
+        int year = digits(chars, offset, 4);
+        int month = digits(chars, offset + 5, 2);
+        int day = digits(chars, offset + 8, 2);
+        int hour = digits(chars, offset + 11, 2);
+        int minute = digits(chars, offset + 14, 2);
+        int second = 0;
+        long micros = 0;
+        int i = offset + 16;
+        int end = offset + length;
+        if (i < end) {
+            if (chars[i] != ':' || i + 3 > end) {
+                return Long.MIN_VALUE;
+            }
+            second = digits(chars, i + 1, 2);
+            i += 3;
+            if (i < end) {
+                if (chars[i] != '.' || end - i - 1 > 9 || end - i - 1 < 1) {
+                    return Long.MIN_VALUE;
+                }
+                int fractionDigits = end - i - 1;
+                int fraction = digits(chars, i + 1, Math.min(fractionDigits, 6));
+                for (int scale = Math.min(fractionDigits, 6); scale < 6; scale++) {
+                    fraction *= 10;
+                }
+                if (fractionDigits > 6 && digits(chars, i + 7, fractionDigits - 6) < 0) {
+                    return Long.MIN_VALUE;
+                }
+                micros = fraction;
+            }
+        }
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59 || micros < 0) {
+            return Long.MIN_VALUE;
+        }
+        long seconds = daysFromCivil(year, month, day) * 86_400L + hour * 3_600L + minute * 60L + second;
+        return seconds * MICROS_PER_SECOND + micros;
+    }
+
+    /**
+     * Parses a run of decimal digits.
+     *
+     * @return the value, or {@code -1} if a character is not a digit.
+     */
+    private static int digits(final char[] chars, final int offset, final int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            char c = chars[i];
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(final int year, final int month) {
+        if (month == 2) {
+            return Year.isLeap(year) ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    /**
+     * Number of days between 1970-01-01 and the given proleptic Gregorian date.
+     */
+    private static long daysFromCivil(final int year, final int month, final int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468L;
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.stockconsumer.service.tick;
+
+/**
+ * Failure of a {@link TickWriter} batch insert that could be attributed to a single tick.
+ * <p>
+ * The transaction of the batch is rolled back, so none of its ticks are persisted; the ticks before
+ * {@link #getFailedIndex()} are known to be valid and can be written again on their own.
+ */
+public class TickWriteException extends RuntimeException {
+
+    /**
+     * Index of the first failing tick in the batch.
+     */
+    private final int failedIndex;
+
+    /**
+     * Creates the exception.
+     *
+     * @param failedIndex index of the first failing tick in the batch.
+     * @param cause       the underlying database error.
+     */
+    public TickWriteException(final int failedIndex, final Throwable cause) {
+        super("Insert of tick " + failedIndex + " failed: " + cause.getMessage(), cause);
+        this.failedIndex = failedIndex;
+    }
+
+    /**
+     * Returns the index of the first failing tick in the batch.
+     *
+     * @return the tick index.
+     */
+    public int getFailedIndex() {
+        return failedIndex;
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.stockconsumer.service.tick;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.BatchUpdateException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Persists a {@link TickBatch} into the {@code stock} table.
+ * <p>
+ * The batch is written with a single JDBC batch insert in one transaction, ids being drawn from the
+ * {@code STOCK_UNIQUE_ID} sequence by the statement itself. Compared to saving {@code Stock} entities,
+ * this skips the entity allocation, the persistence context and the per-row sequence round trip;
+ * ticks are converted to JDBC parameter values only here, at the database edge.
+ * <p>
+ * When the driver reports which statement of the batch failed, the failure is rethrown as a
+ * {@link TickWriteException} carrying the index of the failing tick, so that the caller can persist the
+ * ticks before it and have only the failing record retried.
+ */
+@Component
+public class TickWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO stock (id, symbol, price, timestamp) VALUES (nextval('STOCK_UNIQUE_ID'), ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Creates the writer.
+     *
+     * @param jdbcTemplate       JDBC access to the stock table.
+     * @param transactionManager transaction manager of the data source.
+     */
+    public TickWriter(final JdbcTemplate jdbcTemplate, final PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Inserts all ticks of the batch.
+     *
+     * @param batch ticks to persist.
+     * @throws TickWriteException if the insert of a single tick failed; no tick of the batch is persisted.
+     * @throws DataAccessException if the batch failed for another reason.
+     */
+    public void write(final TickBatch batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            insert(batch);
+        } catch (DataAccessException e) {
+            int failedIndex = failedIndex(e, batch.size());
+            if (failedIndex < 0) {
+                throw e;
+            }
+            throw new TickWriteException(failedIndex, e);
+        }
+    }
+
+    private void insert(final TickBatch batch) {
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(final PreparedStatement ps, final int i) throws SQLException {
+                        ps.setString(1, batch.symbol(i));
+                        ps.setBigDecimal(2, Ticks.toBigDecimal(batch.scaledPrice(i)));
+                        ps.setObject(3, Ticks.toLocalDateTime(batch.epochMicros(i)));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                }));
+    }
+
+    /**
+     * Finds the index of the first failed statement from the update counts of the batch failure: the first
+     * {@link Statement#EXECUTE_FAILED} entry, or the first statement not executed when the driver stopped.
+     *
+     * @return the index, or {@code -1} if the failure is not a batch update failure.
+     */
+    private static int failedIndex(final DataAccessException e, final int size) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof BatchUpdateException batchFailure) {
+                int[] counts = batchFailure.getUpdateCounts();
+                if (counts == null) {
+                    return -1;
+                }
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == Statement.EXECUTE_FAILED) {
+                        return i;
+                    }
+                }
+                return counts.length < size ? counts.length : -1;
+            }
+        }
+        return -1;
+    }
+
+}
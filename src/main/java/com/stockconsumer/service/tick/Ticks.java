@@ -0,0 +1,104 @@
+package com.stockconsumer.service.tick;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Conversions between the compact tick encoding and the types used at the edges of the application.
+ * <p>
+ * Prices are fixed-point {@code long} values with {@link #PRICE_SCALE} decimal digits, matching the
+ * {@code NUMERIC(10, 2)} price column, so that a price is rounded exactly once, when the tick is decoded.
+ * Times are microseconds since the epoch; stock timestamps are interpreted as UTC, like in the retention job.
+ */
+public final class Ticks {
+
+    /**
+     * Number of decimal digits of a scaled price.
+     */
+    public static final int PRICE_SCALE = 2;
+
+    /**
+     * Multiplier between a price and its scaled value.
+     */
+    public static final long PRICE_FACTOR = 100;
+
+    /**
+     * Largest absolute scaled price that fits into the {@code NUMERIC(10, 2)} price column.
+     */
+    public static final long MAX_SCALED_PRICE = 9_999_999_999L;
+
+    /**
+     * Maximum length of a symbol, matching the {@code VARCHAR(10)} symbol column.
+     */
+    public static final int MAX_SYMBOL_LENGTH = 10;
+
+    private Ticks() {
+    }
+
+    /**
+     * Converts a scaled price to a {@code double}.
+     *
+     * @param scaledPrice the scaled price.
+     * @return the price.
+     */
+    public static double toDouble(final long scaledPrice) {
+        return (double) scaledPrice / PRICE_FACTOR;
+    }
+
+    /**
+     * Converts a scaled price to an exact {@link BigDecimal}.
+     *
+     * @param scaledPrice the scaled price.
+     * @return the price.
+     */
+    public static BigDecimal toBigDecimal(final long scaledPrice) {
+        return BigDecimal.valueOf(scaledPrice, PRICE_SCALE);
+    }
+
+    /**
+     * Scales a price, rounding half up to {@link #PRICE_SCALE} decimal digits like the database does.
+     *
+     * @param price the price.
+     * @return the scaled price.
+     */
+    public static long toScaledPrice(final double price) {
+        return toScaledPrice(BigDecimal.valueOf(price));
+    }
+
+    /**
+     * Scales a price, rounding half up to {@link #PRICE_SCALE} decimal digits like the database does.
+     *
+     * @param price the price.
+     * @return the scaled price.
+     * @throws ArithmeticException if the scaled price does not fit into a {@code long}.
+     */
+    public static long toScaledPrice(final BigDecimal price) {
+        return price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Converts a timestamp to microseconds since the epoch.
+     *
+     * @param timestamp the timestamp, interpreted as UTC.
+     * @return the epoch microseconds.
+     */
+    public static long toEpochMicros(final LocalDateTime timestamp) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, timestamp.toInstant(ZoneOffset.UTC));
+    }
+
+    /**
+     * Converts microseconds since the epoch to a timestamp.
+     *
+     * @param epochMicros the epoch microseconds.
+     * @return the timestamp in UTC.
+     */
+    public static LocalDateTime toLocalDateTime(final long epochMicros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMicros, 1_000_000L),
+                (int) Math.floorMod(epochMicros, 1_000_000L) * 1000, ZoneOffset.UTC);
+    }
+
+}
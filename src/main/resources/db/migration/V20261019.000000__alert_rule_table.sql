@@ -0,0 +1,14 @@
+CREATE SEQUENCE ALERT_RULE_UNIQUE_ID AS BIGINT
+    MINVALUE 10000 MAXVALUE 9223372036854775807
+    START WITH 10000 INCREMENT BY 1
+    CACHE 10 NO CYCLE;
+
+CREATE TABLE IF NOT EXISTS alert_rule (
+    id bigint not null primary key,
+    symbol VARCHAR(10) NOT NULL,
+    threshold NUMERIC(10, 2) NOT NULL,
+    direction VARCHAR(10) NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS alert_rule_symbol_idx ON alert_rule (symbol);
@@ -0,0 +1,13 @@
+CREATE TABLE IF NOT EXISTS stock_aggregate (
+    symbol VARCHAR(10) NOT NULL,
+    bucket_seconds INTEGER NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    open_price NUMERIC(10, 2) NOT NULL,
+    high_price NUMERIC(10, 2) NOT NULL,
+    low_price NUMERIC(10, 2) NOT NULL,
+    close_price NUMERIC(10, 2) NOT NULL,
+    tick_count BIGINT NOT NULL,
+    PRIMARY KEY (symbol, bucket_seconds, bucket_start)
+);
+
+CREATE INDEX IF NOT EXISTS stock_aggregate_bucket_start_idx ON stock_aggregate (bucket_start);
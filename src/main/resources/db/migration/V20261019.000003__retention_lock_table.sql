@@ -0,0 +1,3 @@
+CREATE TABLE IF NOT EXISTS retention_lock (
+    policy_table VARCHAR(64) NOT NULL PRIMARY KEY
+);
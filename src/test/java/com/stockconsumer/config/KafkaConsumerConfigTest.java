@@ -0,0 +1,54 @@
+package com.stockconsumer.config;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the per-feed container factories of {@link KafkaConsumerConfig}.
+ */
+class KafkaConsumerConfigTest {
+
+    private final StockConsumerProperties properties = new StockConsumerProperties();
+
+    private final KafkaConsumerConfig config = new KafkaConsumerConfig(properties);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(config, "bootstrapServers", "localhost:9092");
+    }
+
+    /**
+     * Scenario: a record-mode feed with an explicit batch size gets its own settings and consumer group.
+     */
+    @Test
+    void testFeedContainerFactory() {
+        StockConsumerProperties.Feed feed = new StockConsumerProperties.Feed("nyse");
+        feed.setConcurrency(3);
+        feed.setBatchSize(250);
+        feed.setProcessingMode(StockConsumerProperties.ProcessingMode.RECORD);
+
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = config.feedContainerFactory(feed);
+
+        assertFalse(factory.isBatchListener());
+        assertEquals("250", factory.getContainerProperties().getKafkaConsumerProperties()
+                .getProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG));
+        assertEquals("nyse", feed.getTopic());
+        assertEquals("nyse-listener", feed.getListenerId());
+        assertEquals(KafkaConsumerConfig.KAFKA_GROUP_ID + "-nyse", config.groupId(feed));
+    }
+
+    /**
+     * Scenario: a feed without a batch size starts at the initial adaptive batch size.
+     */
+    @Test
+    void testDefaultBatchSize() {
+        properties.getAdaptive().setInitialBatchSize(42);
+
+        assertEquals(42, config.batchSize(new StockConsumerProperties.Feed("lse")));
+    }
+}
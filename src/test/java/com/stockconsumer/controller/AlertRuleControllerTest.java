@@ -0,0 +1,70 @@
+package com.stockconsumer.controller;
+
+import com.stockconsumer.controllers.AlertRuleController;
+import com.stockconsumer.model.entity.AlertDirection;
+import com.stockconsumer.model.entity.AlertRule;
+import com.stockconsumer.service.AlertRuleService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for AlertRuleController with mock security and mock service.
+ */
+@WebMvcTest(AlertRuleController.class)
+@TestPropertySource(locations = "classpath:application-test.yml")
+class AlertRuleControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private AlertRuleService alertRuleService;
+
+    /**
+     * Test POST /alerts/rules with a valid rule.
+     * Expects 201 Created and the persisted rule.
+     */
+    @Test
+    @WithMockUser(username = "testUser", roles = {"USER"})
+    void testCreateRule() throws Exception {
+        AlertRule created = new AlertRule(10000L, "AAPL", 180.0, AlertDirection.ABOVE, LocalDateTime.now());
+        Mockito.when(alertRuleService.createRule(ArgumentMatchers.any(AlertRule.class))).thenReturn(created);
+
+        mockMvc.perform(post("/alerts/rules")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"symbol\":\"AAPL\",\"threshold\":180,\"direction\":\"ABOVE\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(10000))
+                .andExpect(jsonPath("$.direction").value("ABOVE"));
+    }
+
+    /**
+     * Test POST /alerts/rules without a threshold.
+     * Expects 400 Bad Request.
+     */
+    @Test
+    @WithMockUser(username = "testUser", roles = {"USER"})
+    void testCreateInvalidRule() throws Exception {
+        mockMvc.perform(post("/alerts/rules")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"symbol\":\"AAPL\",\"direction\":\"ABOVE\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+}
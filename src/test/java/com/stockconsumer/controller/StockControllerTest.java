@@ -3,6 +3,7 @@ package com.stockconsumer.controller;
 import com.stockconsumer.controllers.StockController;
 import com.stockconsumer.model.entity.Stock;
 import com.stockconsumer.service.StockService;
+import com.stockconsumer.service.changes.PriceChanges;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,6 +16,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -69,4 +71,45 @@ class StockControllerTest {
                 .andExpect(jsonPath("$[0].symbol").value("AAPL"));
     }
 
+    /**
+     * Test GET /stocks/symbol/{symbol}/asof with a mock authenticated user.
+     * Expects the tick at or before the requested time, or 404 Not Found when none is known.
+     */
+    @Test
+    @WithMockUser(username = "testUser", roles = {"USER"})
+    void testGetStockAsOf() throws Exception {
+        LocalDateTime ts = LocalDateTime.of(2026, 10, 19, 10, 15, 30);
+        Stock mockStock = new Stock(null, "AAPL", 150.0, ts.minusSeconds(2));
+        Mockito.when(stockService.getStockAsOf("AAPL", ts)).thenReturn(Optional.of(mockStock));
+
+        mockMvc.perform(get("/stocks/symbol/AAPL/asof").param("ts", "2026-10-19T10:15:30")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price").value(150.0));
+
+        mockMvc.perform(get("/stocks/symbol/MSFT/asof").param("ts", "2026-10-19T10:15:30")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Test GET /stocks/changes with a mock authenticated user.
+     * Expects the changes since the requested version, with the current version.
+     */
+    @Test
+    @WithMockUser(username = "testUser", roles = {"USER"})
+    void testGetChanges() throws Exception {
+        Stock mockStock = new Stock(null, "AAPL", 150.0, LocalDateTime.now());
+        Mockito.when(stockService.getChangesSince("k3x9-41"))
+                .thenReturn(new PriceChanges("k3x9-42", false, List.of(mockStock)));
+
+        mockMvc.perform(get("/stocks/changes").param("since", "k3x9-41")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value("k3x9-42"))
+                .andExpect(jsonPath("$.snapshot").value(false))
+                .andExpect(jsonPath("$.stocks", hasSize(1)))
+                .andExpect(jsonPath("$.stocks[0].symbol").value("AAPL"));
+    }
+
 }
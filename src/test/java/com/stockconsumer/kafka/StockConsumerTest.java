@@ -2,22 +2,60 @@ package com.stockconsumer.kafka;
 
 
 import com.stockconsumer.model.entity.Stock;
-import com.stockconsumer.model.repository.StockRepository;
 import com.stockconsumer.service.StockConsumer;
+import com.stockconsumer.service.adaptive.AdaptiveBatchController;
+import com.stockconsumer.service.alert.AlertDispatcher;
+import com.stockconsumer.service.alert.AlertRuleIndex;
+import com.stockconsumer.service.changes.PriceChangeLog;
+import com.stockconsumer.service.history.RecentTickStore;
+import com.stockconsumer.service.snapshot.LatestPricePublisher;
+import com.stockconsumer.service.startup.FirstRecordProbe;
+import com.stockconsumer.service.tick.SymbolDictionary;
+import com.stockconsumer.service.tick.TickBatch;
+import com.stockconsumer.service.tick.TickWriteException;
+import com.stockconsumer.service.tick.TickWriter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class StockConsumerTest {
 
+    private static final String LISTENER = "stock-prices-listener";
+
+    @Mock
+    private TickWriter tickWriter;
+
+    @Mock
+    private AdaptiveBatchController batchController;
+
+    @Mock
+    private AlertRuleIndex alertRuleIndex;
+
+    @Mock
+    private AlertDispatcher alertDispatcher;
+
+    @Mock
+    private FirstRecordProbe firstRecordProbe;
+
+    @Mock
+    private RecentTickStore recentTickStore;
+
     @Mock
-    private StockRepository stockRepository;
+    private LatestPricePublisher latestPricePublisher;
+
+    @Mock
+    private PriceChangeLog priceChangeLog;
 
     @InjectMocks
     private StockConsumer stockConsumer;
@@ -29,10 +67,53 @@ class StockConsumerTest {
 
     @Test
     void testConsume() {
-        Stock stock = new Stock(null, "AAPL", 150.0, LocalDateTime.now());
+        TickBatch batch = new TickBatch(new SymbolDictionary());
+        batch.add(new Stock(null, "AAPL", 150.0, LocalDateTime.now()), System.currentTimeMillis());
+
+        stockConsumer.consume(LISTENER, batch);
+
+        verify(alertRuleIndex, times(1)).evaluate(batch);
+        verify(tickWriter, times(1)).write(batch);
+        verify(alertRuleIndex, times(1)).commit(batch);
+        verify(recentTickStore, times(1)).record(batch);
+        verify(latestPricePublisher, times(1)).record(batch);
+        verify(priceChangeLog, times(1)).record(batch);
+        verify(batchController, times(1)).record(eq(LISTENER), eq(1), anyLong(), anyLong());
+        verify(firstRecordProbe, times(1)).recordConsumed();
+        verify(batchController, times(1)).recordIngestLatency(eq(LISTENER), anyLong());
+    }
+
+    @Test
+    void testConsumeFailedFlush() {
+        TickBatch batch = new TickBatch(new SymbolDictionary());
+        batch.add(new Stock(null, "AAPL", 150.0, LocalDateTime.now()), System.currentTimeMillis());
+        doThrow(new IllegalStateException("database down")).when(tickWriter).write(batch);
+
+        assertThrows(IllegalStateException.class, () -> stockConsumer.consume(LISTENER, batch));
+
+        verify(alertRuleIndex, times(1)).evaluate(batch);
+        verify(alertRuleIndex, never()).commit(batch);
+        verifyNoInteractions(recentTickStore, priceChangeLog, latestPricePublisher, alertDispatcher);
+    }
+
+    @Test
+    void testConsumeFailedTick() {
+        TickBatch batch = new TickBatch(new SymbolDictionary());
+        batch.add(new Stock(null, "AAPL", 150.0, LocalDateTime.now()), System.currentTimeMillis());
+        batch.add(new Stock(null, "MSFT", 450.0, LocalDateTime.now()), System.currentTimeMillis());
+        batch.add(new Stock(null, "GOOGL", 6400.1, LocalDateTime.now()), System.currentTimeMillis());
+        doThrow(new TickWriteException(2, new SQLException("value too long")))
+                .doNothing()
+                .when(tickWriter).write(batch);
 
-        stockConsumer.consume(stock);
+        TickWriteException failure = assertThrows(TickWriteException.class,
+                () -> stockConsumer.consume(LISTENER, batch));
 
-        verify(stockRepository, times(1)).save(stock);
+        assertEquals(2, failure.getFailedIndex());
+        assertEquals(2, batch.size());
+        verify(tickWriter, times(2)).write(batch);
+        verify(alertRuleIndex, times(1)).commit(batch);
+        verify(priceChangeLog, times(1)).record(batch);
+        verify(batchController, times(1)).record(eq(LISTENER), eq(2), anyLong(), anyLong());
     }
 }
@@ -0,0 +1,65 @@
+package com.stockconsumer.kafka;
+
+import com.stockconsumer.service.StockConsumer;
+import com.stockconsumer.service.StockFeedListener;
+import com.stockconsumer.service.tick.SymbolDictionary;
+import com.stockconsumer.service.tick.TickBatch;
+import com.stockconsumer.service.tick.TickDecoder;
+import com.stockconsumer.service.tick.TickWriteException;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class StockFeedListenerTest {
+
+    private static final String LISTENER = "stock-prices-listener";
+
+    private final StockConsumer stockConsumer = mock(StockConsumer.class);
+
+    private final SymbolDictionary dictionary = new SymbolDictionary();
+
+    private final StockFeedListener listener = new StockFeedListener(LISTENER, stockConsumer,
+            new TickDecoder(dictionary), dictionary);
+
+    /**
+     * Scenario: invalid records are skipped and the valid ones are consumed as one batch.
+     */
+    @Test
+    void testOnBatch() {
+        listener.onBatch(List.of(tick(0, "AAPL"), record(1, "not json"), tick(2, "MSFT")));
+
+        verify(stockConsumer).consume(eq(LISTENER), argThat((TickBatch batch) -> batch.size() == 2));
+    }
+
+    /**
+     * Scenario: a flush failing on a tick is reported at the index of its record, skipped records included.
+     */
+    @Test
+    void testOnBatchWriteFailure() {
+        doThrow(new TickWriteException(2, new SQLException("value too long")))
+                .when(stockConsumer).consume(eq(LISTENER), any());
+
+        BatchListenerFailedException failure = assertThrows(BatchListenerFailedException.class,
+                () -> listener.onBatch(List.of(tick(0, "AAPL"), record(1, "not json"), tick(2, "MSFT"),
+                        tick(3, "GOOGL"))));
+
+        assertEquals(3, failure.getIndex());
+    }
+
+    private static ConsumerRecord<String, byte[]> tick(final long offset, final String symbol) {
+        return record(offset, "{\"symbol\":\"" + symbol + "\",\"price\":1.5,\"timestamp\":\"2026-10-19T10:15:30\"}");
+    }
+
+    private static ConsumerRecord<String, byte[]> record(final long offset, final String value) {
+        return new ConsumerRecord<>("stock-prices", 0, offset, "key", value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,187 @@
+package com.stockconsumer.load;
+
+import com.stockconsumer.config.KafkaFeedConfig;
+import com.stockconsumer.model.entity.Stock;
+import com.stockconsumer.model.repository.StockRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * End-to-end ingest throughput and latency harness.
+ * <p>
+ * Runs the real {@link com.stockconsumer.config.KafkaConsumerConfig}, {@link KafkaFeedConfig}
+ * and {@link com.stockconsumer.service.StockConsumer}
+ * against an embedded Kafka broker and an in-memory H2 database (PostgreSQL mode, schema created by
+ * the regular Flyway migrations), feeds them with ticks from
+ * {@link TickGenerator} and reports the sustained throughput, the ingest latency percentiles and
+ * the allocation rate of the consumer threads.
+ * <p>
+ * Excluded from the regular test run; execute it with {@code gradle loadTest}.
+ * The workload is configured through system properties:
+ * <ul>
+ *     <li>{@code loadtest.messages} - number of ticks to send (default 50000);</li>
+ *     <li>{@code loadtest.symbols} - number of distinct symbols (default 500);</li>
+ *     <li>{@code loadtest.skew} - Zipf exponent of the symbol distribution (default 1.0);</li>
+ *     <li>{@code loadtest.rate} - ticks per second, 0 for unthrottled (default 0);</li>
+ *     <li>{@code loadtest.timeout} - maximum run time in seconds (default 300).</li>
+ * </ul>
+ */
+@Tag("load")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:loadtest;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.stockconsumer=WARN"
+})
+@ActiveProfiles("test")
+@EmbeddedKafka(kraft = true, topics = "stock-prices", partitions = 3, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+class StockIngestLoadTest {
+
+    private static final String TOPIC = "stock-prices";
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry registry;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void measureIngest() throws Exception {
+        long messages = Long.getLong("loadtest.messages", 50_000);
+        int symbols = Integer.getInteger("loadtest.symbols", 500);
+        double skew = Double.parseDouble(System.getProperty("loadtest.skew", "1.0"));
+        int rate = Integer.getInteger("loadtest.rate", 0);
+        long timeoutSeconds = Long.getLong("loadtest.timeout", 300);
+
+        ContainerTestUtils.waitForAssignment(registry.getListenerContainer(KafkaFeedConfig.DEFAULT_LISTENER_ID),
+                broker.getPartitionsPerTopic());
+        long baseline = stockRepository.count();
+        AllocationSampler allocations = new AllocationSampler();
+        allocations.sample();
+
+        KafkaTemplate<String, Stock> template = producer();
+        TickGenerator generator = new TickGenerator(symbols, skew, rate, 42L);
+        long start = System.nanoTime();
+        generator.emit(messages, tick -> template.send(TOPIC, tick.getSymbol(), tick));
+        template.flush();
+
+        long deadline = start + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        long persisted = 0;
+        while (System.nanoTime() < deadline) {
+            persisted = stockRepository.count() - baseline;
+            if (persisted >= messages) {
+                break;
+            }
+            allocations.sample();
+            Thread.sleep(20);
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        allocations.sample();
+        long allocated = allocations.allocatedSinceFirstSample();
+
+        Timer latency = meterRegistry.get("stock.consumer.ingest.latency")
+                .tag("listener", KafkaFeedConfig.DEFAULT_LISTENER_ID).timer();
+        StringBuilder report = new StringBuilder()
+                .append(String.format("%n=== Stock ingest load test ===%n"))
+                .append(String.format("messages=%d symbols=%d skew=%.2f rate=%s%n",
+                        messages, symbols, skew, rate > 0 ? rate + "/s" : "unthrottled"))
+                .append(String.format("persisted=%d elapsed=%.2f s throughput=%.0f msgs/s%n",
+                        persisted, elapsedSeconds, persisted / elapsedSeconds));
+        for (ValueAtPercentile percentile : latency.takeSnapshot().percentileValues()) {
+            report.append(String.format("ingest latency p%s = %.1f ms%n",
+                    trim(percentile.percentile() * 100), percentile.value(TimeUnit.MILLISECONDS)));
+        }
+        report.append(String.format("consumer allocation rate = %.1f MB/s (%.0f B/msg)%n",
+                allocated / elapsedSeconds / (1024 * 1024), (double) allocated / Math.max(1, persisted)));
+        System.out.println(report);
+
+        assertEquals(messages, persisted, "all generated ticks should be persisted before the timeout");
+    }
+
+    private KafkaTemplate<String, Stock> producer() {
+        Map<String, Object> props = KafkaTestUtils.producerProps(broker);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        props.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, 64 * 1024);
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(props));
+    }
+
+    private static String trim(final double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+
+    /**
+     * Tracks the bytes allocated by the listener consumer threads.
+     * <p>
+     * Consumer threads are replaced whenever a container restarts (e.g. when the adaptive batch size
+     * is applied), so the threads are sampled repeatedly and the last value seen per thread is kept.
+     */
+    private static final class AllocationSampler {
+
+        private final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        private final Map<Long, Long> initial = new HashMap<>();
+
+        private final Map<Long, Long> latest = new HashMap<>();
+
+        void sample() {
+            long[] ids = Thread.getAllStackTraces().keySet().stream()
+                    .filter(thread -> thread.getName().startsWith(KafkaFeedConfig.DEFAULT_LISTENER_ID))
+                    .mapToLong(Thread::threadId)
+                    .toArray();
+            long[] bytes = threads.getThreadAllocatedBytes(ids);
+            boolean first = initial.isEmpty() && latest.isEmpty();
+            for (int i = 0; i < ids.length; i++) {
+                if (bytes[i] < 0) {
+                    continue;
+                }
+                if (first) {
+                    initial.put(ids[i], bytes[i]);
+                } else {
+                    initial.putIfAbsent(ids[i], 0L);
+                }
+                latest.put(ids[i], bytes[i]);
+            }
+        }
+
+        long allocatedSinceFirstSample() {
+            return latest.entrySet().stream()
+                    .mapToLong(entry -> entry.getValue() - initial.getOrDefault(entry.getKey(), 0L))
+                    .sum();
+        }
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.stockconsumer.load;
+
+import com.stockconsumer.model.entity.Stock;
+
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Synthetic stock tick generator for load tests.
+ * <p>
+ * Symbols are drawn from a Zipf distribution: with {@code skew = 0} every symbol is equally likely,
+ * larger values concentrate the traffic on a few "hot" symbols, like a real market feed.
+ * Emission is paced to the requested rate; a rate of {@code 0} emits as fast as possible.
+ */
+class TickGenerator {
+
+    /**
+     * Symbol names, index 0 being the most frequent one.
+     */
+    private final String[] symbols;
+
+    /**
+     * Cumulative Zipf probabilities, aligned with {@link #symbols}.
+     */
+    private final double[] cumulative;
+
+    /**
+     * Target emission rate in ticks per second, {@code 0} for unthrottled.
+     */
+    private final int ratePerSecond;
+
+    /**
+     * Last emitted price per symbol, used for a random walk.
+     */
+    private final double[] prices;
+
+    private final SplittableRandom random;
+
+    /**
+     * Creates the generator.
+     *
+     * @param symbolCount   number of distinct symbols.
+     * @param skew          Zipf exponent of the symbol distribution.
+     * @param ratePerSecond target emission rate, {@code 0} for unthrottled.
+     * @param seed          random seed, so that runs are repeatable.
+     */
+    TickGenerator(final int symbolCount, final double skew, final int ratePerSecond, final long seed) {
+        this.symbols = new String[symbolCount];
+        this.cumulative = new double[symbolCount];
+        this.prices = new double[symbolCount];
+        this.ratePerSecond = ratePerSecond;
+        this.random = new SplittableRandom(seed);
+
+        double total = 0;
+        for (int i = 0; i < symbolCount; i++) {
+            symbols[i] = String.format("S%05d", i);
+            prices[i] = 10 + random.nextDouble(490);
+            total += 1.0 / Math.pow(i + 1, skew);
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < symbolCount; i++) {
+            cumulative[i] /= total;
+        }
+    }
+
+    /**
+     * Emits the given number of ticks to the sink, paced to the configured rate.
+     *
+     * @param count number of ticks to emit.
+     * @param sink  receiver of the ticks.
+     */
+    void emit(final long count, final Consumer<Stock> sink) {
+        long start = System.nanoTime();
+        double intervalNanos = ratePerSecond > 0 ? 1_000_000_000.0 / ratePerSecond : 0;
+        for (long i = 0; i < count; i++) {
+            if (intervalNanos > 0) {
+                long due = start + (long) (i * intervalNanos);
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            sink.accept(next());
+        }
+    }
+
+    /**
+     * Produces the next tick.
+     *
+     * @return a stock price update.
+     */
+    Stock next() {
+        int index = pickSymbol();
+        double price = Math.max(0.01, prices[index] * (1 + (random.nextDouble() - 0.5) / 500));
+        prices[index] = price;
+        return Stock.builder()
+                .symbol(symbols[index])
+                .price(Math.round(price * 100) / 100.0)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private int pickSymbol() {
+        double u = random.nextDouble();
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] < u) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+}
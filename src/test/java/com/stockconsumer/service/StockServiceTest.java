@@ -2,6 +2,8 @@ package com.stockconsumer.service;
 
 import com.stockconsumer.model.entity.Stock;
 import com.stockconsumer.model.repository.StockRepository;
+import com.stockconsumer.service.history.AggregatedPriceHistory;
+import com.stockconsumer.service.history.RecentTickStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -10,6 +12,7 @@ import org.mockito.MockitoAnnotations;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -29,6 +32,18 @@ class StockServiceTest {
     @Mock
     private StockRepository stockRepository;
 
+    /**
+     * Mocked in-memory buffers of the recent ticks.
+     */
+    @Mock
+    private RecentTickStore recentTickStore;
+
+    /**
+     * Mocked downsampled price history.
+     */
+    @Mock
+    private AggregatedPriceHistory aggregatedPriceHistory;
+
     /**
      * The service under test, which is injected with mocked dependencies.
      */
@@ -63,4 +78,45 @@ class StockServiceTest {
         assertEquals(2, result.size());
         verify(stockRepository, times(1)).findAll();
     }
+
+    /**
+     * Tests the {@link StockServiceImpl#getStockAsOf(String, LocalDateTime)} method.
+     * <p>
+     * Scenario: lookups within the in-memory horizon do not touch the database,
+     * older lookups fall back to the persisted history.
+     */
+    @Test
+    void testGetStockAsOf() {
+        LocalDateTime recent = LocalDateTime.now();
+        LocalDateTime old = recent.minusDays(1);
+        Stock buffered = new Stock(null, "AAPL", 151.0, recent.minusSeconds(1));
+        Stock persisted = new Stock(7L, "AAPL", 140.0, old.minusMinutes(5));
+        when(recentTickStore.priceAsOf("AAPL", recent)).thenReturn(Optional.of(buffered));
+        when(recentTickStore.priceAsOf("AAPL", old)).thenReturn(Optional.empty());
+        when(stockRepository.findFirstBySymbolAndTimestampLessThanEqualOrderByTimestampDesc("AAPL", old))
+                .thenReturn(Optional.of(persisted));
+
+        assertEquals(Optional.of(buffered), stockService.getStockAsOf("AAPL", recent));
+        assertEquals(Optional.of(persisted), stockService.getStockAsOf("AAPL", old));
+        verify(stockRepository, times(1))
+                .findFirstBySymbolAndTimestampLessThanEqualOrderByTimestampDesc(anyString(), any());
+        verifyNoInteractions(aggregatedPriceHistory);
+    }
+
+    /**
+     * Tests the {@link StockServiceImpl#getStockAsOf(String, LocalDateTime)} method.
+     * <p>
+     * Scenario: no raw tick is retained at or before the time, so the close price of the rolled-up bucket is returned.
+     */
+    @Test
+    void testGetStockAsOfBeyondRetention() {
+        LocalDateTime old = LocalDateTime.now().minusDays(30);
+        Stock aggregated = new Stock(null, "AAPL", 120.0, old.withMinute(0).withSecond(0).withNano(0));
+        when(recentTickStore.priceAsOf("AAPL", old)).thenReturn(Optional.empty());
+        when(stockRepository.findFirstBySymbolAndTimestampLessThanEqualOrderByTimestampDesc("AAPL", old))
+                .thenReturn(Optional.empty());
+        when(aggregatedPriceHistory.priceAsOf("AAPL", old)).thenReturn(Optional.of(aggregated));
+
+        assertEquals(Optional.of(aggregated), stockService.getStockAsOf("AAPL", old));
+    }
 }
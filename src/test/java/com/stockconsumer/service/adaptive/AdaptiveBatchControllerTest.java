@@ -0,0 +1,90 @@
+package com.stockconsumer.service.adaptive;
+
+import com.stockconsumer.config.StockConsumerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for {@link AdaptiveBatchController}.
+ */
+class AdaptiveBatchControllerTest {
+
+    private static final String LISTENER = "test-listener";
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AdaptiveBatchController controller;
+
+    @BeforeEach
+    void setUp() {
+        StockConsumerProperties properties = new StockConsumerProperties();
+        properties.getAdaptive().setInitialBatchSize(100);
+        properties.getAdaptive().setMinBatchSize(10);
+        properties.getAdaptive().setMaxBatchSize(1000);
+        properties.getAdaptive().setTargetLatency(Duration.ofMillis(100));
+        meterRegistry = new SimpleMeterRegistry();
+        controller = new AdaptiveBatchController(properties, meterRegistry);
+    }
+
+    /**
+     * Scenario: batches take longer than the latency target, so the batch size is halved
+     * until it reaches the lower bound.
+     */
+    @Test
+    void testDecreasesWhenLatencyAboveTarget() {
+        controller.record(LISTENER, 100, millis(50), millis(250));
+
+        assertEquals(50, controller.evaluate(LISTENER));
+        controller.record(LISTENER, 50, millis(50), millis(250));
+        controller.evaluate(LISTENER);
+        controller.record(LISTENER, 25, millis(50), millis(250));
+        controller.evaluate(LISTENER);
+        controller.record(LISTENER, 12, millis(50), millis(250));
+
+        assertEquals(10, controller.evaluate(LISTENER));
+        assertEquals(4.0, meterRegistry.get("stock.consumer.batch.adjustments")
+                .tag("direction", "down").counter().count());
+    }
+
+    /**
+     * Scenario: full batches are processed well within the target, so the batch size grows,
+     * at most doubling per evaluation.
+     */
+    @Test
+    void testIncreasesWhenBatchesAreFullAndFast() {
+        controller.record(LISTENER, 100, millis(1), millis(9));
+
+        assertEquals(200, controller.evaluate(LISTENER));
+        assertEquals(200.0, meterRegistry.get("stock.consumer.batch.size.recommended").gauge().value());
+    }
+
+    /**
+     * Scenario: batches are fast but only partially filled, i.e. there is no backlog, so the size is kept.
+     */
+    @Test
+    void testKeepsSizeWhenBatchesAreNotFull() {
+        controller.record(LISTENER, 5, millis(1), millis(1));
+
+        assertEquals(100, controller.evaluate(LISTENER));
+    }
+
+    /**
+     * Scenario: the fetch properties follow the effective batch size.
+     */
+    @Test
+    void testFetchProperties() {
+        assertEquals(200, controller.fetchProperties(200).get(ConsumerConfig.MAX_POLL_RECORDS_CONFIG));
+        assertTrue((Integer) controller.fetchProperties(200).get(ConsumerConfig.FETCH_MIN_BYTES_CONFIG) > 1);
+    }
+
+    private static long millis(final long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
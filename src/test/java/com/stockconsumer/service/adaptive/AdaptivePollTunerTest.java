@@ -0,0 +1,79 @@
+package com.stockconsumer.service.adaptive;
+
+import com.stockconsumer.config.StockConsumerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link AdaptivePollTuner}.
+ */
+class AdaptivePollTunerTest {
+
+    private AdaptiveBatchController controller;
+
+    private AdaptivePollTuner tuner;
+
+    @BeforeEach
+    void setUp() {
+        StockConsumerProperties properties = new StockConsumerProperties();
+        properties.getAdaptive().setTargetLatency(Duration.ofMillis(100));
+        controller = new AdaptiveBatchController(properties, new SimpleMeterRegistry());
+        tuner = new AdaptivePollTuner(properties, controller, mock(KafkaListenerEndpointRegistry.class));
+    }
+
+    /**
+     * Scenario: a registered batch mode listener is restarted with the reduced batch size.
+     */
+    @Test
+    void testAdjustsBatchListener() {
+        controller.register("batch-listener", 100);
+        MessageListenerContainer container = container("batch-listener");
+        controller.record("batch-listener", 100, millis(50), millis(250));
+
+        tuner.adjust(container);
+
+        assertEquals(50, controller.getAppliedBatchSize("batch-listener"));
+        assertEquals("50", container.getContainerProperties().getKafkaConsumerProperties()
+                .getProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG));
+        verify(container).stop();
+        verify(container).start();
+    }
+
+    /**
+     * Scenario: a record mode listener is not registered, so slow records never re-configure its container.
+     */
+    @Test
+    void testLeavesRecordListenerAlone() {
+        MessageListenerContainer container = container("record-listener");
+        controller.record("record-listener", 1, millis(50), millis(250));
+
+        tuner.adjust(container);
+
+        assertTrue(container.getContainerProperties().getKafkaConsumerProperties().isEmpty());
+        verify(container, never()).stop();
+    }
+
+    private static MessageListenerContainer container(final String listenerId) {
+        MessageListenerContainer container = mock(MessageListenerContainer.class);
+        ContainerProperties containerProperties = new ContainerProperties("topic");
+        when(container.getListenerId()).thenReturn(listenerId);
+        when(container.getContainerProperties()).thenReturn(containerProperties);
+        when(container.isRunning()).thenReturn(true);
+        return container;
+    }
+
+    private static long millis(final long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
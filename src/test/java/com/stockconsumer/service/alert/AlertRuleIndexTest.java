@@ -0,0 +1,154 @@
+package com.stockconsumer.service.alert;
+
+import com.stockconsumer.model.entity.AlertDirection;
+import com.stockconsumer.model.entity.AlertRule;
+import com.stockconsumer.model.entity.Stock;
+import com.stockconsumer.model.repository.AlertRuleRepository;
+import com.stockconsumer.model.repository.StockRepository;
+import com.stockconsumer.service.tick.SymbolDictionary;
+import com.stockconsumer.service.tick.TickBatch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for {@link AlertRuleIndex}.
+ */
+class AlertRuleIndexTest {
+
+    @Mock
+    private AlertRuleRepository alertRuleRepository;
+
+    @Mock
+    private StockRepository stockRepository;
+
+    private final SymbolDictionary dictionary = new SymbolDictionary();
+
+    private AlertRuleIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(alertRuleRepository.findAll()).thenReturn(List.of(
+                rule(1L, "AAPL", 180.0, AlertDirection.ABOVE),
+                rule(2L, "AAPL", 190.0, AlertDirection.ABOVE),
+                rule(3L, "AAPL", 170.0, AlertDirection.BELOW),
+                rule(4L, "MSFT", 180.0, AlertDirection.ABOVE)
+        ));
+        when(stockRepository.findLatestPerSymbol())
+                .thenReturn(List.of(new Stock(1L, "MSFT", 175.0, LocalDateTime.now().minusDays(1))));
+        index = new AlertRuleIndex(alertRuleRepository, stockRepository, dictionary, new SimpleMeterRegistry());
+        index.load();
+    }
+
+    /**
+     * Scenario: the first tick of a symbol only establishes the reference price.
+     */
+    @Test
+    void testFirstTickDoesNotTrigger() {
+        assertTrue(evaluate("AAPL", 185.0).isEmpty());
+    }
+
+    /**
+     * Scenario: a rising price triggers only the ABOVE rules whose thresholds lie in (previous, price].
+     */
+    @Test
+    void testCrossAbove() {
+        evaluate("AAPL", 175.0);
+
+        List<AlertTrigger> triggers = evaluate("AAPL", 185.0);
+
+        assertEquals(1, triggers.size());
+        assertEquals(1L, triggers.get(0).rule().getId());
+        assertEquals(175.0, triggers.get(0).previousPrice());
+        assertTrue(evaluate("AAPL", 186.0).isEmpty(), "staying above the threshold must not re-trigger");
+    }
+
+    /**
+     * Scenario: a falling price triggers only the BELOW rules whose thresholds lie in [price, previous).
+     */
+    @Test
+    void testCrossBelow() {
+        evaluate("AAPL", 175.0);
+
+        List<AlertTrigger> triggers = evaluate("AAPL", 170.0);
+
+        assertEquals(1, triggers.size());
+        assertEquals(3L, triggers.get(0).rule().getId());
+    }
+
+    /**
+     * Scenario: the reference price is seeded from the latest persisted row, so the first tick after a restart
+     * is compared with it.
+     */
+    @Test
+    void testSeededReferencePrice() {
+        List<AlertTrigger> triggers = evaluate("MSFT", 185.0);
+
+        assertEquals(1, triggers.size());
+        assertEquals(4L, triggers.get(0).rule().getId());
+        assertEquals(175.0, triggers.get(0).previousPrice());
+    }
+
+    /**
+     * Scenario: ticks of a batch are compared with their predecessor in the batch, and a batch that is
+     * not committed (e.g. because the flush failed) is evaluated against the same prices when retried.
+     */
+    @Test
+    void testRetriedBatchTriggersAgain() {
+        evaluate("AAPL", 175.0);
+        TickBatch batch = batch("AAPL", 185.0, 168.0);
+
+        List<AlertTrigger> first = index.evaluate(batch);
+        List<AlertTrigger> retried = index.evaluate(batch);
+
+        assertEquals(List.of(1L, 3L), first.stream().map(trigger -> trigger.rule().getId()).toList());
+        assertEquals(first, retried);
+        index.commit(batch);
+        assertTrue(evaluate("AAPL", 168.0).isEmpty(), "the committed batch moves the reference price");
+    }
+
+    /**
+     * Scenario: removed rules no longer trigger and the index size follows adds and removals.
+     */
+    @Test
+    void testRemove() {
+        assertEquals(4, index.size());
+        index.remove(rule(1L, "AAPL", 180.0, AlertDirection.ABOVE));
+        evaluate("AAPL", 175.0);
+
+        List<AlertTrigger> triggers = evaluate("AAPL", 195.0);
+
+        assertEquals(1, triggers.size());
+        assertEquals(2L, triggers.get(0).rule().getId());
+        assertEquals(3, index.size());
+    }
+
+    private List<AlertTrigger> evaluate(final String symbol, final double price) {
+        TickBatch batch = batch(symbol, price);
+        List<AlertTrigger> triggers = index.evaluate(batch);
+        index.commit(batch);
+        return triggers;
+    }
+
+    private TickBatch batch(final String symbol, final double... prices) {
+        TickBatch batch = new TickBatch(dictionary);
+        for (double price : prices) {
+            batch.add(new Stock(null, symbol, price, LocalDateTime.now()), System.currentTimeMillis());
+        }
+        return batch;
+    }
+
+    private static AlertRule rule(final Long id, final String symbol, final double threshold,
+                                  final AlertDirection direction) {
+        return new AlertRule(id, symbol, threshold, direction, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,136 @@
+package com.stockconsumer.service.changes;
+
+import com.stockconsumer.config.StockConsumerProperties;
+import com.stockconsumer.model.entity.Stock;
+import com.stockconsumer.model.repository.StockRepository;
+import com.stockconsumer.service.tick.SymbolDictionary;
+import com.stockconsumer.service.tick.TickBatch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for {@link PriceChangeLog}.
+ */
+class PriceChangeLogTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 10, 19, 10, 0);
+
+    @Mock
+    private StockRepository stockRepository;
+
+    private final SymbolDictionary dictionary = new SymbolDictionary();
+
+    private PriceChangeLog changeLog;
+
+    private String epoch;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(stockRepository.findLatestPerSymbol()).thenReturn(List.of(
+                new Stock(1L, "AAPL", 150.0, T0),
+                new Stock(2L, "GOOGL", 6400.1, T0)));
+        StockConsumerProperties properties = new StockConsumerProperties();
+        properties.getChanges().setCapacity(4);
+        changeLog = new PriceChangeLog(properties, stockRepository, dictionary, new SimpleMeterRegistry());
+        changeLog.load();
+        String initial = changeLog.changesSince(null).version();
+        epoch = initial.substring(0, initial.lastIndexOf('-'));
+    }
+
+    /**
+     * Scenario: a client without a copy gets the full snapshot of the loaded prices.
+     */
+    @Test
+    void testInitialSnapshot() {
+        PriceChanges changes = changeLog.changesSince(null);
+
+        assertTrue(changes.snapshot());
+        assertEquals(version(0), changes.version());
+        assertEquals(List.of("AAPL", "GOOGL"), symbols(changes));
+    }
+
+    /**
+     * Scenario: a client gets each changed symbol once, with its latest price, in order of its last change.
+     */
+    @Test
+    void testDelta() {
+        record(tick("AAPL", 1, 151.0), tick("MSFT", 1, 300.0), tick("AAPL", 2, 152.0));
+
+        PriceChanges changes = changeLog.changesSince(version(0));
+        assertFalse(changes.snapshot());
+        assertEquals(version(3), changes.version());
+        assertEquals(List.of("MSFT", "AAPL"), symbols(changes));
+        assertEquals(152.0, changes.stocks().get(1).getPrice());
+
+        assertEquals(List.of("AAPL"), symbols(changeLog.changesSince(version(2))));
+        assertTrue(changeLog.changesSince(version(3)).stocks().isEmpty());
+    }
+
+    /**
+     * Scenario: a tick older than the latest price of its symbol does not change it.
+     */
+    @Test
+    void testOutOfOrderTick() {
+        record(tick("AAPL", 5, 155.0), tick("AAPL", 3, 153.0));
+
+        PriceChanges changes = changeLog.changesSince(version(0));
+        assertEquals(version(1), changes.version());
+        assertEquals(155.0, changes.stocks().get(0).getPrice());
+    }
+
+    /**
+     * Scenario: versions no longer retained or from the future, and tokens of another instance or run, or
+     * malformed ones, get the full snapshot.
+     */
+    @Test
+    void testSnapshotFallback() {
+        for (int i = 1; i <= 6; i++) {
+            record(tick("S" + i, i, i));
+        }
+
+        assertTrue(changeLog.changesSince(version(1)).snapshot());
+        PriceChanges delta = changeLog.changesSince(version(2));
+        assertFalse(delta.snapshot());
+        assertEquals(List.of("S3", "S4", "S5", "S6"), symbols(delta));
+
+        PriceChanges snapshot = changeLog.changesSince(version(-1));
+        assertTrue(snapshot.snapshot());
+        assertEquals(8, snapshot.stocks().size());
+        assertTrue(changeLog.changesSince(version(7)).snapshot());
+        assertTrue(changeLog.changesSince("other-5").snapshot());
+        assertTrue(changeLog.changesSince(epoch + "x-5").snapshot());
+        assertTrue(changeLog.changesSince(epoch + "-").snapshot());
+        assertTrue(changeLog.changesSince("5").snapshot());
+    }
+
+    private void record(final Stock... stocks) {
+        TickBatch batch = new TickBatch(dictionary);
+        for (Stock stock : stocks) {
+            batch.add(stock, 0L);
+        }
+        changeLog.record(batch);
+    }
+
+    private String version(final long version) {
+        return epoch + '-' + version;
+    }
+
+    private static List<String> symbols(final PriceChanges changes) {
+        return changes.stocks().stream().map(Stock::getSymbol).toList();
+    }
+
+    private static Stock tick(final String symbol, final long secondsAfterT0, final double price) {
+        return new Stock(null, symbol, price, T0.plusSeconds(secondsAfterT0));
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.stockconsumer.service.history;
+
+import com.stockconsumer.model.entity.Stock;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for {@link AggregatedPriceHistory} against an in-memory H2 database created by the Flyway migrations.
+ */
+class AggregatedPriceHistoryTest {
+
+    private static final LocalDateTime HOUR = LocalDateTime.of(2026, 9, 1, 10, 0);
+
+    private JdbcTemplate jdbcTemplate;
+
+    private AggregatedPriceHistory history;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        history = new AggregatedPriceHistory(jdbcTemplate);
+    }
+
+    /**
+     * Scenario: the close price of the latest bucket ending at or before the time is returned, the finest
+     * bucket winning among buckets ending at the same time.
+     */
+    @Test
+    void testPriceAsOf() {
+        insertBucket("AAPL", 3600, HOUR, "171.00");
+        insertBucket("AAPL", 86400, HOUR, "175.00");
+        insertBucket("AAPL", 3600, HOUR.plusHours(1), "172.00");
+        insertBucket("AAPL", 3600, HOUR.plusHours(23), "173.00");
+        insertBucket("MSFT", 3600, HOUR.plusHours(1), "450.00");
+
+        Optional<Stock> price = history.priceAsOf("AAPL", HOUR.plusHours(2));
+
+        assertTrue(price.isPresent());
+        assertEquals("AAPL", price.get().getSymbol());
+        assertEquals(172.0, price.get().getPrice());
+        assertEquals(HOUR.plusHours(1), price.get().getTimestamp());
+        assertEquals(171.0, history.priceAsOf("AAPL", HOUR.plusHours(1)).orElseThrow().getPrice());
+        assertEquals(173.0, history.priceAsOf("AAPL", HOUR.plusHours(24)).orElseThrow().getPrice());
+        assertTrue(history.priceAsOf("AAPL", HOUR.plusMinutes(59)).isEmpty());
+    }
+
+    /**
+     * Scenario: a time in the middle of a bucket gets the close of the previous bucket, not the close of the
+     * bucket it falls in, which may come from a later tick.
+     */
+    @Test
+    void testPriceAsOfMidBucket() {
+        insertBucket("AAPL", 3600, HOUR, "171.00");
+        insertBucket("AAPL", 3600, HOUR.plusHours(1), "172.00");
+
+        Stock price = history.priceAsOf("AAPL", HOUR.plusHours(1).plusMinutes(30)).orElseThrow();
+
+        assertEquals(171.0, price.getPrice());
+        assertEquals(HOUR, price.getTimestamp());
+    }
+
+    private void insertBucket(final String symbol, final int bucketSeconds, final LocalDateTime bucketStart,
+                              final String close) {
+        BigDecimal price = new BigDecimal(close);
+        jdbcTemplate.update("INSERT INTO stock_aggregate (symbol, bucket_seconds, bucket_start, open_price,"
+                        + " high_price, low_price, close_price, tick_count) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                symbol, bucketSeconds, Timestamp.valueOf(bucketStart), price, price, price, price, 1L);
+    }
+}
@@ -0,0 +1,147 @@
+package com.stockconsumer.service.history;
+
+import com.stockconsumer.config.StockConsumerProperties;
+import com.stockconsumer.model.entity.Stock;
+import com.stockconsumer.service.tick.SymbolDictionary;
+import com.stockconsumer.service.tick.TickBatch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for {@link RecentTickStore} and its {@link TickRingBuffer}.
+ */
+class RecentTickStoreTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 10, 19, 10, 0);
+
+    private final SymbolDictionary dictionary = new SymbolDictionary();
+
+    private RecentTickStore store;
+
+    @BeforeEach
+    void setUp() {
+        StockConsumerProperties properties = new StockConsumerProperties();
+        properties.getRecentTicks().setHorizon(Duration.ofMinutes(10));
+        properties.getRecentTicks().setMaxTicksPerSymbol(8);
+        store = new RecentTickStore(properties, new SimpleMeterRegistry());
+    }
+
+    /**
+     * Scenario: a lookup returns the last tick at or before the requested time.
+     */
+    @Test
+    void testPriceAsOf() {
+        record(List.of(tick("AAPL", 0, 100.0), tick("AAPL", 60, 101.0), tick("AAPL", 120, 102.0),
+                tick("MSFT", 30, 300.0)));
+
+        assertEquals(100.0, price("AAPL", 59));
+        assertEquals(101.0, price("AAPL", 60));
+        assertEquals(102.0, price("AAPL", 3600));
+        assertEquals(300.0, price("MSFT", 90));
+        assertEquals(T0.plusSeconds(60), store.priceAsOf("AAPL", T0.plusSeconds(119)).orElseThrow().getTimestamp());
+    }
+
+    /**
+     * Scenario: times before the oldest buffered tick, or unknown symbols, are not answered from memory.
+     */
+    @Test
+    void testOutsideOfHorizon() {
+        record(List.of(tick("AAPL", 0, 100.0)));
+
+        assertTrue(store.priceAsOf("AAPL", T0.minusSeconds(1)).isEmpty());
+        assertTrue(store.priceAsOf("MSFT", T0).isEmpty());
+    }
+
+    /**
+     * Scenario: ticks older than the horizon, measured from the newest tick, are evicted.
+     */
+    @Test
+    void testHorizonEviction() {
+        record(List.of(tick("AAPL", 0, 100.0), tick("AAPL", 300, 101.0), tick("AAPL", 700, 102.0)));
+
+        assertTrue(store.priceAsOf("AAPL", T0.plusSeconds(200)).isEmpty());
+        assertEquals(101.0, price("AAPL", 400));
+    }
+
+    /**
+     * Scenario: a full buffer overwrites its oldest ticks.
+     */
+    @Test
+    void testCapacityEviction() {
+        for (int i = 0; i < 12; i++) {
+            record(List.of(tick("AAPL", i, 100.0 + i)));
+        }
+
+        assertTrue(store.priceAsOf("AAPL", T0.plusSeconds(3)).isEmpty());
+        assertEquals(104.0, price("AAPL", 4));
+        assertEquals(111.0, price("AAPL", 11));
+    }
+
+    /**
+     * Scenario: a late tick is inserted at its position, keeping the buffer sorted.
+     */
+    @Test
+    void testOutOfOrderTick() {
+        record(List.of(tick("AAPL", 0, 100.0), tick("AAPL", 120, 102.0), tick("AAPL", 60, 101.0)));
+
+        assertEquals(100.0, price("AAPL", 30));
+        assertEquals(101.0, price("AAPL", 90));
+        assertEquals(102.0, price("AAPL", 150));
+    }
+
+    /**
+     * Scenario: a late tick at or before an evicted tick is dropped, so it cannot shadow the evicted tick
+     * as the last tick at or before a requested time.
+     */
+    @Test
+    void testLateTickBeforeEvictedTick() {
+        record(List.of(tick("AAPL", 0, 100.0), tick("AAPL", 300, 101.0), tick("AAPL", 700, 102.0)));
+        record(List.of(tick("AAPL", -60, 99.0), tick("AAPL", 0, 99.5), tick("AAPL", 200, 100.5)));
+
+        assertTrue(store.priceAsOf("AAPL", T0.plusSeconds(100)).isEmpty());
+        assertEquals(100.5, price("AAPL", 250));
+        assertEquals(101.0, price("AAPL", 400));
+    }
+
+    /**
+     * Scenario: the buffer stays sorted across the wrap-around of the ring.
+     */
+    @Test
+    void testWrapAround() {
+        TickRingBuffer buffer = new TickRingBuffer(4, Long.MAX_VALUE);
+        for (long t : new long[]{10, 20, 30, 40, 50, 60, 45}) {
+            buffer.add(t, t * 100);
+        }
+
+        assertEquals(4, buffer.size());
+        assertEquals(40, buffer.timeAt(0));
+        assertEquals(45, buffer.timeAt(1));
+        assertEquals(60, buffer.timeAt(3));
+        assertEquals(-1, buffer.floor(39));
+        assertEquals(4500, buffer.priceAt(buffer.floor(49)));
+    }
+
+    private void record(final List<Stock> stocks) {
+        TickBatch batch = new TickBatch(dictionary);
+        stocks.forEach(stock -> batch.add(stock, 0L));
+        store.record(batch);
+    }
+
+    private Double price(final String symbol, final long secondsAfterT0) {
+        Optional<Stock> tick = store.priceAsOf(symbol, T0.plusSeconds(secondsAfterT0));
+        return tick.map(Stock::getPrice).orElse(null);
+    }
+
+    private static Stock tick(final String symbol, final long secondsAfterT0, final double price) {
+        return new Stock(null, symbol, price, T0.plusSeconds(secondsAfterT0));
+    }
+
+}
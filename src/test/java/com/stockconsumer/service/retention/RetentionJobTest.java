@@ -0,0 +1,170 @@
+package com.stockconsumer.service.retention;
+
+import com.stockconsumer.config.RetentionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for {@link RetentionJob} against an in-memory H2 database created by the Flyway migrations.
+ */
+class RetentionJobTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 19, 12, 0);
+
+    private DriverManagerDataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private RetentionProperties properties;
+
+    private RetentionJob job;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("DELETE FROM stock");
+
+        properties = new RetentionProperties();
+        properties.setBatchSize(2);
+        properties.setPauseBetweenBatches(Duration.ZERO);
+        job = new RetentionJob(properties, jdbcTemplate, new DataSourceTransactionManager(dataSource),
+                new SimpleMeterRegistry());
+    }
+
+    /**
+     * Scenario: expired ticks are rolled up into hourly OHLC aggregates across several batches
+     * and removed, while recent ticks are kept.
+     */
+    @Test
+    void testRollup() {
+        insertTick(1, "AAPL", "170.00", NOW.minusDays(10).withMinute(5));
+        insertTick(2, "AAPL", "175.50", NOW.minusDays(10).withMinute(10));
+        insertTick(3, "AAPL", "168.25", NOW.minusDays(10).withMinute(20));
+        insertTick(4, "AAPL", "171.00", NOW.minusDays(10).withMinute(50));
+        insertTick(5, "AAPL", "180.00", NOW.minusHours(1));
+
+        long removed = job.apply(policy("stock", "timestamp", Duration.ofDays(7), Duration.ofHours(1)), NOW);
+
+        assertEquals(4, removed);
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock", Integer.class));
+        Map<String, Object> aggregate = jdbcTemplate.queryForMap("SELECT * FROM stock_aggregate");
+        assertEquals(Timestamp.valueOf(NOW.minusDays(10).withMinute(0)), aggregate.get("BUCKET_START"));
+        assertEquals(0, new BigDecimal("170.00").compareTo((BigDecimal) aggregate.get("OPEN_PRICE")));
+        assertEquals(0, new BigDecimal("175.50").compareTo((BigDecimal) aggregate.get("HIGH_PRICE")));
+        assertEquals(0, new BigDecimal("168.25").compareTo((BigDecimal) aggregate.get("LOW_PRICE")));
+        assertEquals(0, new BigDecimal("171.00").compareTo((BigDecimal) aggregate.get("CLOSE_PRICE")));
+        assertEquals(4L, ((Number) aggregate.get("TICK_COUNT")).longValue());
+    }
+
+    /**
+     * Scenario: a policy without rollup deletes the expired rows in bounded batches.
+     */
+    @Test
+    void testDeleteOnly() {
+        for (int i = 0; i < 5; i++) {
+            insertTick(i + 1, "MSFT", "450.00", NOW.minusDays(30).plusMinutes(i));
+        }
+        insertTick(10, "MSFT", "451.00", NOW);
+
+        long removed = job.apply(policy("stock", "timestamp", Duration.ofDays(7), null), NOW);
+
+        assertEquals(5, removed);
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock", Integer.class));
+    }
+
+    /**
+     * Scenario: a symbol without recent ticks keeps its latest row, both with and without rollup.
+     */
+    @Test
+    void testKeepsLatestRowOfQuietSymbol() {
+        insertTick(1, "IBM", "140.00", NOW.minusDays(20));
+        insertTick(2, "IBM", "141.00", NOW.minusDays(10));
+        insertTick(3, "ORCL", "120.00", NOW.minusDays(30));
+        insertTick(4, "ORCL", "121.00", NOW.minusDays(30).plusMinutes(1));
+        insertTick(5, "ORCL", "122.00", NOW.minusDays(30).plusMinutes(2));
+
+        assertEquals(3, job.apply(policy("stock", "timestamp", Duration.ofDays(7), Duration.ofHours(1)), NOW));
+        assertEquals(0, job.apply(policy("stock", "timestamp", Duration.ofDays(7), null), NOW));
+
+        assertEquals(List.of(2L, 5L), jdbcTemplate.queryForList("SELECT id FROM stock ORDER BY id", Long.class));
+    }
+
+    /**
+     * Scenario: two instances roll up the same expired ticks at the same time; every tick is counted
+     * exactly once and the bucket keeps its open and close prices.
+     */
+    @Test
+    void testConcurrentRollup() throws Exception {
+        for (int i = 0; i < 200; i++) {
+            insertTick(i + 1, "AAPL", String.valueOf(100 + i % 50), NOW.minusDays(10).withMinute(0).plusSeconds(i));
+        }
+        insertTick(1000, "AAPL", "180.00", NOW.minusHours(1));
+        RetentionProperties.Policy policy = policy("stock", "timestamp", Duration.ofDays(7), Duration.ofHours(1));
+        RetentionJob other = new RetentionJob(properties, jdbcTemplate, new DataSourceTransactionManager(dataSource),
+                new SimpleMeterRegistry());
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Long> first = executor.submit(() -> {
+                start.await();
+                return job.apply(policy, NOW);
+            });
+            Future<Long> second = executor.submit(() -> {
+                start.await();
+                return other.apply(policy, NOW);
+            });
+            start.countDown();
+            long removed = first.get(30, TimeUnit.SECONDS) + second.get(30, TimeUnit.SECONDS);
+            removed += job.apply(policy, NOW);
+
+            assertEquals(200, removed);
+        } finally {
+            executor.shutdownNow();
+        }
+        Map<String, Object> aggregate = jdbcTemplate.queryForMap("SELECT * FROM stock_aggregate");
+        assertEquals(200L, ((Number) aggregate.get("TICK_COUNT")).longValue());
+        assertEquals(0, new BigDecimal("100.00").compareTo((BigDecimal) aggregate.get("OPEN_PRICE")));
+        assertEquals(0, new BigDecimal("149.00").compareTo((BigDecimal) aggregate.get("CLOSE_PRICE")));
+        assertEquals(0, new BigDecimal("149.00").compareTo((BigDecimal) aggregate.get("HIGH_PRICE")));
+        assertEquals(0, new BigDecimal("100.00").compareTo((BigDecimal) aggregate.get("LOW_PRICE")));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock", Integer.class));
+    }
+
+    private void insertTick(final long id, final String symbol, final String price, final LocalDateTime timestamp) {
+        jdbcTemplate.update("INSERT INTO stock (id, symbol, price, timestamp) VALUES (?, ?, ?, ?)",
+                id, symbol, new BigDecimal(price), Timestamp.valueOf(timestamp));
+    }
+
+    private static RetentionProperties.Policy policy(final String table, final String timestampColumn,
+                                                     final Duration retain, final Duration rollup) {
+        RetentionProperties.Policy policy = new RetentionProperties.Policy();
+        policy.setTable(table);
+        policy.setTimestampColumn(timestampColumn);
+        policy.setRetain(retain);
+        policy.setRollup(rollup);
+        return policy;
+    }
+}
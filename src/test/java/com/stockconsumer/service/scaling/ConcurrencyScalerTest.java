@@ -0,0 +1,149 @@
+package com.stockconsumer.service.scaling;
+
+import com.stockconsumer.config.StockConsumerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the scaling decisions of {@link ConcurrencyScaler}.
+ */
+class ConcurrencyScalerTest {
+
+    private static final String LISTENER = "stock-prices-listener";
+
+    private static final int PARTITIONS = 6;
+
+    private final StockConsumerProperties properties = new StockConsumerProperties();
+
+    private ConcurrencyScaler scaler;
+
+    private long now;
+
+    private long end;
+
+    private long consumed;
+
+    private int laggingPartitions = PARTITIONS;
+
+    @BeforeEach
+    void setUp() {
+        properties.getScaling().setMaxConcurrency(8);
+        properties.getScaling().setScaleUpLag(1000);
+        properties.getScaling().setScaleDownLag(100);
+        properties.getScaling().setTargetDrainTime(Duration.ofSeconds(30));
+        properties.getScaling().setScaleUpChecks(2);
+        properties.getScaling().setScaleDownChecks(3);
+        properties.getScaling().setCooldown(Duration.ofSeconds(60));
+        scaler = new ConcurrencyScaler(properties, null, null, null, null, new SimpleMeterRegistry());
+    }
+
+    /**
+     * Scenario: a growing backlog scales up after the required number of checks, towards the rate needed
+     * to drain it in time, at most doubling and never beyond the partition count.
+     */
+    @Test
+    void testScaleUpOnGrowingLag() {
+        assertEquals(1, check(1, 0, 0));
+        assertEquals(1, check(1, 6000, 1000));
+        assertEquals(2, check(1, 6000, 1000));
+
+        now += Duration.ofMinutes(2).toMillis();
+        assertEquals(2, check(2, 6000, 1000));
+        assertEquals(4, check(2, 6000, 1000));
+
+        now += Duration.ofMinutes(2).toMillis();
+        assertEquals(4, check(4, 6000, 1000));
+        assertEquals(PARTITIONS, check(4, 6000, 1000));
+    }
+
+    /**
+     * Scenario: a lag drained quickly enough at the current rate does not scale up.
+     */
+    @Test
+    void testNoScaleUpWhenDrainingInTime() {
+        check(2, 0, 0);
+        check(2, 2000, 0);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(2, check(2, 2000, 2000));
+        }
+    }
+
+    /**
+     * Scenario: a lag oscillating around the thresholds does not scale, and a scale down needs several
+     * consecutive quiet checks and waits for the cooldown.
+     */
+    @Test
+    void testHysteresisAndCooldown() {
+        check(4, 0, 0);
+        assertEquals(4, check(4, 6000, 1000));
+        assertEquals(4, check(4, 100, 5100));
+        assertEquals(4, check(4, 6000, 1000));
+        assertEquals(4, check(4, 100, 5100));
+
+        assertEquals(4, check(4, 100, 100));
+        assertEquals(3, check(4, 100, 100));
+
+        assertEquals(3, check(3, 100, 100));
+        assertEquals(3, check(3, 100, 100));
+        assertEquals(3, check(3, 100, 100));
+        now += Duration.ofMinutes(1).toMillis();
+        assertEquals(2, check(3, 100, 100));
+    }
+
+    /**
+     * Scenario: a backlog piled up on a few partitions scales up no further than the number of lagging
+     * partitions, as every partition is consumed by a single thread.
+     */
+    @Test
+    void testScaleUpCappedAtLaggingPartitions() {
+        laggingPartitions = 2;
+        check(1, 0, 0);
+        assertEquals(1, check(1, 6000, 1000));
+        assertEquals(2, check(1, 6000, 1000));
+
+        now += Duration.ofMinutes(2).toMillis();
+        for (int i = 0; i < 5; i++) {
+            assertEquals(2, check(2, 6000, 1000));
+        }
+    }
+
+    /**
+     * Scenario: a growing backlog does not scale up while nothing is consumed, as the consumers are stalled
+     * rather than saturated.
+     */
+    @Test
+    void testNoScaleUpWhileStalled() {
+        check(2, 0, 0);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(2, check(2, 6000, 0));
+        }
+        assertEquals(2, check(2, 6000, 1000));
+        assertEquals(4, check(2, 6000, 1000));
+    }
+
+    /**
+     * Measures a check 10 seconds after the previous one.
+     *
+     * @param current   current concurrency.
+     * @param produced  records produced since the previous check.
+     * @param processed records consumed since the previous check.
+     * @return the decided concurrency.
+     */
+    private int check(final int current, final long produced, final long processed) {
+        now += 10_000;
+        end += produced;
+        consumed += processed;
+        long[] partitionLags = new long[PARTITIONS];
+        for (int i = 0; i < laggingPartitions; i++) {
+            partitionLags[i] = (end - consumed) / laggingPartitions;
+        }
+        partitionLags[0] += (end - consumed) % laggingPartitions;
+        return scaler.decide(LISTENER, current, new FeedLag(partitionLags, end, consumed, now));
+    }
+
+}
@@ -0,0 +1,168 @@
+package com.stockconsumer.service.snapshot;
+
+import com.stockconsumer.config.KafkaProducerConfig;
+import com.stockconsumer.config.SnapshotProperties;
+import com.stockconsumer.model.entity.Stock;
+import com.stockconsumer.service.tick.SymbolDictionary;
+import com.stockconsumer.service.tick.TickBatch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test of {@link LatestPricePublisher} against an embedded Kafka broker.
+ */
+@EmbeddedKafka(kraft = true, partitions = 1)
+class LatestPricePublisherTest {
+
+    private static final String TOPIC = "stock-prices-latest";
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 10, 19, 10, 0);
+
+    private final SymbolDictionary dictionary = new SymbolDictionary();
+
+    private KafkaAdmin kafkaAdmin;
+
+    private LatestPricePublisher publisher;
+
+    private Consumer<String, String> consumer;
+
+    @BeforeEach
+    void setUp(final EmbeddedKafkaBroker broker) {
+        SnapshotProperties properties = new SnapshotProperties();
+        properties.setTopic(TOPIC);
+        properties.setPartitions(1);
+        properties.setInterval(Duration.ofMillis(100));
+        KafkaProducerConfig producerConfig = new KafkaProducerConfig(properties);
+        ReflectionTestUtils.setField(producerConfig, "bootstrapServers", broker.getBrokersAsString());
+        kafkaAdmin = new KafkaAdmin(
+                Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()));
+        publisher = new LatestPricePublisher(properties, dictionary, producerConfig.snapshotKafkaTemplate(),
+                kafkaAdmin, new SimpleMeterRegistry());
+        publisher.start();
+
+        Map<String, Object> consumerProps = new HashMap<>(KafkaTestUtils.consumerProps("snapshot-test", "false", broker));
+        consumerProps.put(ConsumerConfig.ALLOW_AUTO_CREATE_TOPICS_CONFIG, false);
+        consumer = new KafkaConsumer<>(consumerProps, new StringDeserializer(), new StringDeserializer());
+        consumer.subscribe(List.of(TOPIC));
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.stop();
+        consumer.close();
+    }
+
+    /**
+     * Scenario: several ticks of a symbol within an interval are conflated into one record carrying
+     * the latest price, keyed by symbol, on a compacted topic.
+     */
+    @Test
+    void testPublishesConflatedLatestPrices(final EmbeddedKafkaBroker broker) throws Exception {
+        record(tick("AAPL", 0, 150.0), tick("AAPL", 1, 151.0), tick("MSFT", 0, 300.0), tick("AAPL", 2, 152.5));
+
+        Map<String, String> latest = poll(2);
+        assertEquals(2, latest.size());
+        assertTrue(latest.get("AAPL").contains("\"price\":152.50"), latest.get("AAPL"));
+        assertTrue(latest.get("AAPL").contains("\"timestamp\":\"2026-10-19T10:00:02\""), latest.get("AAPL"));
+        assertTrue(latest.get("MSFT").contains("\"price\":300.00"), latest.get("MSFT"));
+
+        record(tick("AAPL", 3, 153.0), tick("AAPL", 1, 149.0));
+        Map<String, String> next = poll(1);
+        assertEquals(1, next.size());
+        assertTrue(next.get("AAPL").contains("\"price\":153.00"), next.get("AAPL"));
+
+        try (Admin admin = Admin.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG,
+                broker.getBrokersAsString()))) {
+            ConfigResource resource = new ConfigResource(ConfigResource.Type.TOPIC, TOPIC);
+            Config config = admin.describeConfigs(List.of(resource)).all().get().get(resource);
+            assertEquals(TopicConfig.CLEANUP_POLICY_COMPACT, config.get(TopicConfig.CLEANUP_POLICY_CONFIG).value());
+        }
+    }
+
+    /**
+     * Scenario: an existing snapshot topic is used as is; its partition count is never raised to the
+     * configured one, which would move symbols to other partitions.
+     */
+    @Test
+    void testKeepsPartitionsOfExistingTopic(final EmbeddedKafkaBroker broker) throws Exception {
+        String topic = TOPIC + "-existing";
+        try (Admin admin = Admin.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG,
+                broker.getBrokersAsString()))) {
+            admin.createTopics(List.of(new NewTopic(topic, 1, (short) 1))).all().get();
+
+            SnapshotProperties properties = new SnapshotProperties();
+            properties.setTopic(topic);
+            properties.setPartitions(4);
+            properties.setInterval(Duration.ofMillis(100));
+            KafkaProducerConfig producerConfig = new KafkaProducerConfig(properties);
+            ReflectionTestUtils.setField(producerConfig, "bootstrapServers", broker.getBrokersAsString());
+            LatestPricePublisher existing = new LatestPricePublisher(properties, dictionary,
+                    producerConfig.snapshotKafkaTemplate(), kafkaAdmin, new SimpleMeterRegistry());
+            existing.start();
+            try (Consumer<String, String> existingConsumer = new KafkaConsumer<>(
+                    KafkaTestUtils.consumerProps("snapshot-existing-test", "false", broker),
+                    new StringDeserializer(), new StringDeserializer())) {
+                existingConsumer.subscribe(List.of(topic));
+                record(existing, tick("AAPL", 0, 150.0));
+                assertEquals(1, KafkaTestUtils.getRecords(existingConsumer, Duration.ofSeconds(30), 1).count());
+            } finally {
+                existing.stop();
+            }
+
+            assertEquals(1, admin.describeTopics(List.of(topic)).allTopicNames().get().get(topic)
+                    .partitions().size());
+        }
+    }
+
+    private void record(final Stock... stocks) {
+        record(publisher, stocks);
+    }
+
+    private void record(final LatestPricePublisher target, final Stock... stocks) {
+        TickBatch batch = new TickBatch(dictionary);
+        for (Stock stock : stocks) {
+            batch.add(stock, 0L);
+        }
+        target.record(batch);
+    }
+
+    private Map<String, String> poll(final int minRecords) {
+        Map<String, String> latest = new HashMap<>();
+        for (ConsumerRecord<String, String> consumerRecord
+                : KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(30), minRecords)) {
+            assertNull(latest.put(consumerRecord.key(), consumerRecord.value()), "symbol published twice");
+        }
+        return latest;
+    }
+
+    private static Stock tick(final String symbol, final long secondsAfterT0, final double price) {
+        return new Stock(null, symbol, price, T0.plusSeconds(secondsAfterT0));
+    }
+
+}
@@ -0,0 +1,142 @@
+package com.stockconsumer.service.tick;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for {@link TickDecoder} and {@link SymbolDictionary}.
+ */
+class TickDecoderTest {
+
+    private SymbolDictionary dictionary;
+
+    private TickDecoder decoder;
+
+    private TickBatch batch;
+
+    @BeforeEach
+    void setUp() {
+        dictionary = new SymbolDictionary();
+        decoder = new TickDecoder(dictionary);
+        batch = new TickBatch(dictionary);
+    }
+
+    /**
+     * Scenario: a message produced from a {@code Stock} entity is decoded into the compact encoding.
+     */
+    @Test
+    void testDecode() {
+        assertTrue(decode("{\"id\":null,\"symbol\":\"AAPL\",\"price\":150.25,"
+                + "\"timestamp\":\"2026-10-19T10:15:30.123456789\"}", 42L));
+
+        assertEquals(1, batch.size());
+        assertEquals("AAPL", batch.symbol(0));
+        assertEquals(15025, batch.scaledPrice(0));
+        assertEquals(LocalDateTime.of(2026, 10, 19, 10, 15, 30, 123456000),
+                Ticks.toLocalDateTime(batch.epochMicros(0)));
+        assertEquals(42L, batch.kafkaTimestamp(0));
+    }
+
+    /**
+     * Scenario: the hand-written timestamp parser agrees with {@link LocalDateTime#parse}.
+     */
+    @Test
+    void testTimestampFormats() {
+        for (String text : new String[]{"2026-10-19T10:15", "2024-02-29T23:59:59", "1969-12-31T23:59:59.5",
+                "2000-01-01T00:00:00.000001", "2026-03-01T00:00:00.1234567"}) {
+            batch.clear();
+            assertTrue(decode("{\"symbol\":\"X\",\"price\":1,\"timestamp\":\"" + text + "\"}", 0L), text);
+            assertEquals(Ticks.toEpochMicros(LocalDateTime.parse(text)), batch.epochMicros(0), text);
+        }
+        batch.clear();
+        assertTrue(decode("{\"symbol\":\"X\",\"price\":1,\"timestamp\":[2026,10,19,10,15,30,500000000]}", 0L));
+        assertEquals(LocalDateTime.of(2026, 10, 19, 10, 15, 30, 500000000),
+                Ticks.toLocalDateTime(batch.epochMicros(0)));
+    }
+
+    /**
+     * Scenario: prices are rounded half up from their decimal text, like the NUMERIC(10, 2) column does.
+     */
+    @Test
+    void testPriceRounding() {
+        assertEquals(15, price("0.145"));
+        assertEquals(-15, price("-0.145"));
+        assertEquals(14, price("0.1449999"));
+        assertEquals(15000, price("150"));
+        assertEquals(15000, price("1.5E2"));
+        assertEquals(1005, price("\"10.05\""));
+        assertEquals(Ticks.MAX_SCALED_PRICE, price("99999999.99"));
+    }
+
+    /**
+     * Scenario: incomplete or malformed messages are rejected without touching the batch.
+     */
+    @Test
+    void testInvalidMessages() {
+        assertFalse(decode("{\"symbol\":\"AAPL\",\"price\":150.0}", 0L));
+        assertFalse(decode("{\"symbol\":null,\"price\":150.0,\"timestamp\":\"2026-10-19T10:15:30\"}", 0L));
+        assertFalse(decode("{\"symbol\":\"AAPL\",\"price\":\"n/a\",\"timestamp\":\"2026-10-19T10:15:30\"}", 0L));
+        assertFalse(decode("{\"symbol\":\"AAPL\",\"price\":1,\"timestamp\":\"2026-02-30T10:15:30\"}", 0L));
+        assertFalse(decode("{\"symbol\":\"ABCDEFGHIJK\",\"price\":1,\"timestamp\":\"2026-10-19T10:15:30\"}", 0L));
+        assertFalse(decode("{\"symbol\":\"AAPL\",\"price\":100000000,\"timestamp\":\"2026-10-19T10:15:30\"}", 0L));
+        assertFalse(decode("{\"symbol\":\"AAPL\",\"price\":-1E8,\"timestamp\":\"2026-10-19T10:15:30\"}", 0L));
+        assertFalse(decode("not json", 0L));
+        assertFalse(decoder.decode(null, 0L, batch));
+        assertTrue(batch.isEmpty());
+    }
+
+    /**
+     * Scenario: symbols get stable dense ids, whether looked up from strings or from character buffers.
+     */
+    @Test
+    void testSymbolDictionary() {
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, dictionary.idOf("S" + i));
+        }
+        char[] chars = "xxS500yy".toCharArray();
+        assertEquals(500, dictionary.idOf(chars, 2, 4));
+        assertEquals("S999", dictionary.symbol(999));
+        assertEquals(1000, dictionary.size());
+        assertEquals(1000, dictionary.idOf("NEW"));
+    }
+
+    /**
+     * Scenario: only fully validated messages add their symbol to the dictionary, and ticks of new symbols
+     * are skipped once the dictionary is full.
+     */
+    @Test
+    void testSymbolDictionaryCap() {
+        dictionary = new SymbolDictionary(2);
+        decoder = new TickDecoder(dictionary);
+        batch = new TickBatch(dictionary);
+
+        assertFalse(decode("{\"symbol\":\"BAD\",\"price\":\"n/a\",\"timestamp\":\"2026-10-19T10:15:30\"}", 0L));
+        assertFalse(decode("{\"symbol\":\"BAD\",\"price\":1}", 0L));
+        assertEquals(0, dictionary.size());
+
+        assertTrue(decode("{\"symbol\":\"AAPL\",\"price\":1,\"timestamp\":\"2026-10-19T10:15:30\"}", 0L));
+        assertTrue(decode("{\"symbol\":\"MSFT\",\"price\":1,\"timestamp\":\"2026-10-19T10:15:30\"}", 0L));
+        assertFalse(decode("{\"symbol\":\"IBM\",\"price\":1,\"timestamp\":\"2026-10-19T10:15:30\"}", 0L));
+        assertTrue(decode("{\"symbol\":\"AAPL\",\"price\":2,\"timestamp\":\"2026-10-19T10:15:31\"}", 0L));
+
+        assertEquals(2, dictionary.size());
+        assertEquals(SymbolDictionary.NO_ID, dictionary.idOf("IBM"));
+        assertEquals(3, batch.size());
+    }
+
+    private boolean decode(final String json, final long kafkaTimestamp) {
+        return decoder.decode(json.getBytes(StandardCharsets.UTF_8), kafkaTimestamp, batch);
+    }
+
+    private long price(final String price) {
+        batch.clear();
+        assertTrue(decode("{\"symbol\":\"X\",\"price\":" + price + ",\"timestamp\":\"2026-10-19T10:15:30\"}", 0L));
+        return batch.scaledPrice(0);
+    }
+
+}
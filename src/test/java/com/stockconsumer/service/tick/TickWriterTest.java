@@ -0,0 +1,74 @@
+package com.stockconsumer.service.tick;
+
+import com.stockconsumer.model.entity.Stock;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for {@link TickWriter} against an in-memory H2 database created by the Flyway migrations.
+ */
+class TickWriterTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 19, 12, 0);
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TickWriter writer;
+
+    private TickBatch batch;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("DELETE FROM stock");
+        writer = new TickWriter(jdbcTemplate, new DataSourceTransactionManager(dataSource));
+        batch = new TickBatch(new SymbolDictionary());
+    }
+
+    /**
+     * Scenario: all ticks of the batch are inserted with ids drawn from the sequence.
+     */
+    @Test
+    void testWrite() {
+        batch.add(new Stock(null, "AAPL", 150.25, NOW), 0L);
+        batch.add(new Stock(null, "MSFT", 450.0, NOW.plusSeconds(1)), 0L);
+
+        writer.write(batch);
+
+        assertEquals(List.of("AAPL", "MSFT"),
+                jdbcTemplate.queryForList("SELECT symbol FROM stock ORDER BY id", String.class));
+    }
+
+    /**
+     * Scenario: a tick violating the table constraints fails the batch with its index, nothing is persisted,
+     * and the ticks before it can be written on their own.
+     */
+    @Test
+    void testFailingTick() {
+        batch.add(new Stock(null, "AAPL", 150.25, NOW), 0L);
+        batch.add(new Stock(null, "MSFT", 450.0, NOW), 0L);
+        batch.add(new Stock(null, "TOOLONGSYMBOL", 1.0, NOW), 0L);
+        batch.add(new Stock(null, "GOOGL", 6400.1, NOW), 0L);
+
+        TickWriteException failure = assertThrows(TickWriteException.class, () -> writer.write(batch));
+
+        assertEquals(2, failure.getFailedIndex());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock", Integer.class));
+        batch.truncate(failure.getFailedIndex());
+        writer.write(batch);
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock", Integer.class));
+    }
+}
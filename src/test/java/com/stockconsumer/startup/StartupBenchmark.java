@@ -0,0 +1,176 @@
+package com.stockconsumer.startup;
+
+import com.stockconsumer.service.startup.FirstRecordProbe;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Startup benchmark: time from JVM start to the first consumed record.
+ * <p>
+ * Starts an embedded Kafka broker holding one record, then launches the extracted application jar
+ * (see the {@code cdsExtract} Gradle task) several times in each mode: plain JIT, Spring AOT, and
+ * Spring AOT with an AppCDS archive produced by a training run. Every launch uses a fresh consumer group
+ * and a fresh in-memory H2 database (PostgreSQL mode, migrated by Flyway), so each one pays the full
+ * startup cost. Run it with {@code gradle startupBenchmark -Pruns=5}.
+ * <p>
+ * Arguments: application jar, H2 driver jar, java executable, number of runs per mode.
+ */
+public final class StartupBenchmark {
+
+    private static final String TOPIC = "stock-prices";
+
+    private static final Pattern FIRST_RECORD = Pattern.compile(FirstRecordProbe.LOG_MESSAGE + " (\\d+) ms");
+
+    private static final long TIMEOUT_SECONDS = 180;
+
+    private final String classpath;
+
+    private final String java;
+
+    private final String bootstrapServers;
+
+    private final Path workDir;
+
+    private StartupBenchmark(final String classpath, final String java, final String bootstrapServers,
+                             final Path workDir) {
+        this.classpath = classpath;
+        this.java = java;
+        this.bootstrapServers = bootstrapServers;
+        this.workDir = workDir;
+    }
+
+    public static void main(final String[] args) throws Exception {
+        File appJar = new File(args[0]);
+        String classpath = appJar.getAbsolutePath() + File.pathSeparator + new File(args[1]).getAbsolutePath();
+        int runs = Integer.parseInt(args[3]);
+
+        EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, 1, TOPIC);
+        broker.afterPropertiesSet();
+        try {
+            publishRecord(broker.getBrokersAsString());
+            StartupBenchmark benchmark = new StartupBenchmark(classpath, args[2], broker.getBrokersAsString(),
+                    appJar.getParentFile().toPath());
+            benchmark.run(runs);
+        } finally {
+            broker.destroy();
+        }
+    }
+
+    private void run(final int runs) throws Exception {
+        Path archive = workDir.resolve("benchmark.jsa");
+        Files.deleteIfExists(archive);
+
+        List<String> aot = List.of("-Dspring.aot.enabled=true");
+        List<String> training = List.of("-XX:ArchiveClassesAtExit=" + archive, "-Dspring.aot.enabled=true",
+                "-Dspring.context.exit=onRefresh");
+        List<String> aotCds = List.of("-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true");
+
+        long[] jit = measure("jit", List.of(), runs);
+        long[] aotOnly = measure("aot", aot, runs);
+        launch(training, List.of("--stock.startup.flyway-mode=skip",
+                "--spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"), false);
+        long[] cds = measure("aot+cds", aotCds, runs);
+
+        System.out.printf("%n=== Time to first consumed record (ms, JVM start -> first record) ===%n");
+        System.out.printf("%-10s %8s %8s %8s%n", "mode", "min", "median", "max");
+        report("jit", jit);
+        report("aot", aotOnly);
+        report("aot+cds", cds);
+    }
+
+    private long[] measure(final String mode, final List<String> jvmArgs, final int runs) throws Exception {
+        long[] results = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            results[i] = launch(jvmArgs, List.of(), true);
+            System.out.printf("%s run %d: %d ms%n", mode, i + 1, results[i]);
+        }
+        return results;
+    }
+
+    /**
+     * Launches the application and, when {@code waitForRecord} is set, returns the time to the first
+     * consumed record reported by the application; otherwise waits for the process to exit.
+     */
+    private long launch(final List<String> jvmArgs, final List<String> appArgs, final boolean waitForRecord)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(jvmArgs);
+        command.addAll(List.of("-cp", classpath, "com.stockconsumer.StockConsumerApplication"));
+        command.addAll(List.of(
+                "--server.port=0",
+                "--spring.kafka.bootstrap-servers=" + bootstrapServers,
+                "--spring.datasource.url=jdbc:h2:mem:startup;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--stock.retention.enabled=false",
+                "--stock.consumer.feeds[0].name=" + TOPIC,
+                "--stock.consumer.feeds[0].topic=" + TOPIC,
+                "--stock.consumer.feeds[0].group-id=startup-benchmark-" + UUID.randomUUID()));
+        command.addAll(appArgs);
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).directory(workDir.toFile()).start();
+        try (BufferedReader output = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+            String line;
+            while ((line = output.readLine()) != null && System.nanoTime() < deadline) {
+                Matcher matcher = FIRST_RECORD.matcher(line);
+                if (waitForRecord && matcher.find()) {
+                    return Long.parseLong(matcher.group(1));
+                }
+            }
+            if (waitForRecord) {
+                throw new IllegalStateException("Application did not consume a record: " + command);
+            }
+            process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            return -1;
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static void publishRecord(final String bootstrapServers) {
+        Map<String, Object> props = Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        try (KafkaProducer<String, String> producer = new KafkaProducer<>(props)) {
+            producer.send(new ProducerRecord<>(TOPIC, "AAPL",
+                    "{\"symbol\":\"AAPL\",\"price\":170.5,\"timestamp\":\"2026-10-19T10:00:00\"}"));
+            producer.flush();
+        }
+    }
+
+    private static void report(final String mode, final long[] results) {
+        long[] sorted = results.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%-10s %8d %8d %8d%n", mode, sorted[0], sorted[sorted.length / 2],
+                sorted[sorted.length - 1]);
+    }
+
+}